@@ -0,0 +1,143 @@
+package br.com.docket.domain;
+
+import br.com.docket.config.Constants;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy;
+
+/**
+ * Benchmarks of inserting registries with their certificates, through Hibernate on an in-memory H2 database created
+ * from the entity mappings, so that the JDBC batching and the id generation are measured without the network.
+ * <p>
+ * The sequence calls and the prepared inserts are reported as secondary rates: with the pooled-lo optimizer, there is
+ * one sequence call per {@link Constants#SEQUENCE_ALLOCATION_SIZE} entities instead of one per entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class BatchInsertBenchmark {
+
+    private static final int REGISTRIES = 100;
+
+    private static final int CERTIFICATES_PER_REGISTRY = 4;
+
+    @Param({"1", "25"})
+    public int batchSize;
+
+    private final StatementCounter statementCounter = new StatementCounter();
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setup() {
+        StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.URL, "jdbc:h2:mem:batch-insert-benchmark;DB_CLOSE_DELAY=-1")
+            .applySetting(AvailableSettings.USER, "sa")
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .applySetting(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+            .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize)
+            .applySetting(AvailableSettings.ORDER_INSERTS, true)
+            .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+            // The change tracking listener needs the Spring context, a transaction draws a single change sequence anyway
+            .applySetting(AvailableSettings.JPA_CALLBACKS_ENABLED, false)
+            .applySetting(AvailableSettings.STATEMENT_INSPECTOR, statementCounter)
+            .build();
+        sessionFactory = new MetadataSources(serviceRegistry)
+            .addAnnotatedClass(Registry.class)
+            .addAnnotatedClass(Certificate.class)
+            .getMetadataBuilder()
+            .applyPhysicalNamingStrategy(new SpringPhysicalNamingStrategy())
+            .build()
+            .buildSessionFactory();
+    }
+
+    /**
+     * Empty the tables, so that their size does not change from one iteration to the next.
+     */
+    @TearDown(Level.Iteration)
+    public void deleteAll() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createQuery("delete from Certificate").executeUpdate();
+            session.createQuery("delete from Registry").executeUpdate();
+            transaction.commit();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Long insertRegistriesWithCertificates(Statements statements) {
+        long sequenceCalls = statementCounter.sequenceCalls.sum();
+        long inserts = statementCounter.inserts.sum();
+        Registry registry = null;
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            for (int i = 0; i < REGISTRIES; i++) {
+                registry = new Registry().name("Registry " + i).city("São Paulo").state("SP");
+                session.persist(registry);
+                for (int j = 0; j < CERTIFICATES_PER_REGISTRY; j++) {
+                    Certificate certificate = new Certificate().name("Certificate " + j);
+                    registry.addCertificate(certificate);
+                    session.persist(certificate);
+                }
+            }
+            transaction.commit();
+        }
+        statements.sequenceCalls += statementCounter.sequenceCalls.sum() - sequenceCalls;
+        statements.inserts += statementCounter.inserts.sum() - inserts;
+        return registry.getId();
+    }
+
+    /**
+     * The statements prepared by the benchmark, a batch of inserts being prepared once.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Statements {
+
+        public long sequenceCalls;
+
+        public long inserts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            sequenceCalls = 0;
+            inserts = 0;
+        }
+    }
+
+    private static final class StatementCounter implements StatementInspector {
+
+        private final LongAdder sequenceCalls = new LongAdder();
+
+        private final LongAdder inserts = new LongAdder();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("next value for")) {
+                sequenceCalls.increment();
+            } else if (sql.startsWith("insert")) {
+                inserts.increment();
+            }
+            return sql;
+        }
+    }
+}
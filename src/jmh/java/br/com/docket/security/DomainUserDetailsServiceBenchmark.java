@@ -0,0 +1,84 @@
+package br.com.docket.security;
+
+import br.com.docket.domain.Authority;
+import br.com.docket.domain.User;
+import br.com.docket.repository.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Benchmarks of {@link DomainUserDetailsService#loadUserByUsername}, against an in-memory {@link UserRepository} so
+ * that only the service itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class DomainUserDetailsServiceBenchmark {
+
+    private static final int USER_COUNT = 1000;
+
+    private DomainUserDetailsService domainUserDetailsService;
+
+    @Setup
+    public void setup() {
+        Map<String, User> usersByLogin = new HashMap<>();
+        Map<String, User> usersByEmail = new HashMap<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            User user = user(i);
+            usersByLogin.put(user.getLogin(), user);
+            usersByEmail.put(user.getEmail().toLowerCase(Locale.ENGLISH), user);
+        }
+        domainUserDetailsService = new DomainUserDetailsService(inMemoryUserRepository(usersByLogin, usersByEmail),
+            new NoOpCacheManager());
+    }
+
+    @Benchmark
+    public UserDetails loadUserByLogin() {
+        return domainUserDetailsService.loadUserByUsername("USER-500");
+    }
+
+    @Benchmark
+    public UserDetails loadUserByEmail() {
+        return domainUserDetailsService.loadUserByUsername("User-500@localhost");
+    }
+
+    private static User user(int index) {
+        Authority userAuthority = new Authority();
+        userAuthority.setName(AuthoritiesConstants.USER);
+        User user = new User();
+        user.setLogin("user-" + index);
+        user.setEmail("user-" + index + "@localhost");
+        user.setPassword("$2a$10$gSAhZrxMllrbgj/kkK9UceBPpChGWJA7SYIb1Mqo.n5aNLq1/oRrC");
+        user.setActivated(true);
+        user.setAuthorities(Collections.singleton(userAuthority));
+        return user;
+    }
+
+    /**
+     * Only implements the lookups done by {@link DomainUserDetailsService}, any other call fails.
+     */
+    private static UserRepository inMemoryUserRepository(Map<String, User> usersByLogin, Map<String, User> usersByEmail) {
+        return (UserRepository) Proxy.newProxyInstance(
+            UserRepository.class.getClassLoader(),
+            new Class<?>[]{UserRepository.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "findOneWithAuthoritiesByLogin":
+                        return Optional.ofNullable(usersByLogin.get((String) args[0]));
+                    case "findOneWithAuthoritiesByEmailIgnoreCase":
+                        return Optional.ofNullable(usersByEmail.get(((String) args[0]).toLowerCase(Locale.ENGLISH)));
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
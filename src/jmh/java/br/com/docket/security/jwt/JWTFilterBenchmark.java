@@ -0,0 +1,63 @@
+package br.com.docket.security.jwt;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Benchmarks of {@link JWTFilter#doFilter}, in front of every {@code /api/**} call, with a chain that does nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class JWTFilterBenchmark {
+
+    private JWTFilter jwtFilter;
+
+    private MockHttpServletRequest authenticatedRequest;
+
+    private MockHttpServletRequest anonymousRequest;
+
+    private MockHttpServletResponse response;
+
+    private FilterChain filterChain;
+
+    @Setup
+    public void setup() {
+        TokenProvider tokenProvider = TokenProviderBenchmark.tokenProvider();
+        String jwt = tokenProvider.createToken(TokenProviderBenchmark.authentication(), false);
+        jwtFilter = new JWTFilter(tokenProvider);
+
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/registries");
+        authenticatedRequest.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/registries");
+        response = new MockHttpServletResponse();
+        // MockFilterChain can only be used once, the benchmark needs a reusable one
+        filterChain = (request, response) -> { };
+    }
+
+    @Benchmark
+    public void doFilterWithToken(Blackhole blackhole) throws IOException, ServletException {
+        jwtFilter.doFilter(authenticatedRequest, response, filterChain);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        // Cleared here rather than in a Level.Invocation teardown, whose own overhead would skew the results
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void doFilterWithoutToken(Blackhole blackhole) throws IOException, ServletException {
+        jwtFilter.doFilter(anonymousRequest, response, filterChain);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.docket.security.jwt;
+
+import br.com.docket.security.AuthoritiesConstants;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import io.github.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmarks of the {@link TokenProvider} operations done for every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class TokenProviderBenchmark {
+
+    static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private TokenProvider tokenProvider;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        tokenProvider = tokenProvider();
+        authentication = authentication();
+        token = tokenProvider.createToken(authentication, false);
+        // Warm the validated tokens cache, as a client repeating its token would
+        tokenProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Optional<Authentication> authenticate() {
+        return tokenProvider.authenticate(token);
+    }
+
+    static TokenProvider tokenProvider() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties);
+        tokenProvider.init();
+        return tokenProvider;
+    }
+
+    static Authentication authentication() {
+        List<GrantedAuthority> authorities = Arrays.asList(
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER),
+            new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN));
+        return new UsernamePasswordAuthenticationToken("benchmark", "benchmark", authorities);
+    }
+}
@@ -1,6 +1,10 @@
 package br.com.docket.aop.logging;
 
+import br.com.docket.config.ApplicationProperties;
+
 import io.github.jhipster.config.JHipsterConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -8,25 +12,57 @@ import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only runs with the "dev" profile. With the {@link ApplicationProperties.AspectMode#TIMING} mode, it
+ * runs with any profile and times the calls instead of logging them, see {@link #timeAround(ProceedingJoinPoint)}.
  */
 @Aspect
 public class LoggingAspect {
 
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
+    private final ApplicationProperties.Logging properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowCallThresholdNanos;
+
+    /**
+     * Timers by target class and method, the class lookup being the cheapest map there is.
+     */
+    private final ClassValue<Map<Method, Timer>> timers = new ClassValue<Map<Method, Timer>>() {
+        @Override
+        protected Map<Method, Timer> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    public LoggingAspect(Environment env, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
         this.env = env;
+        this.properties = applicationProperties.getLogging();
+        this.meterRegistry = meterRegistry;
+        this.slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowCallThresholdMs());
     }
 
     /**
@@ -95,6 +131,9 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (properties.getAspectMode() == ApplicationProperties.AspectMode.TIMING) {
+            return timeAround(joinPoint);
+        }
         Logger log = logger(joinPoint);
         if (log.isDebugEnabled()) {
             log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
@@ -110,4 +149,114 @@ public class LoggingAspect {
             throw e;
         }
     }
+
+    /**
+     * Records the duration of a call in the {@code application.calls} timer of its class and method, and logs it when
+     * slower than {@code slow-call-threshold-ms}. Neither the arguments nor the result are ever written out, only the
+     * types and sizes of the arguments.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable thrown by the call.
+     */
+    Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer timer = timer(joinPoint);
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (IllegalArgumentException e) {
+            logger(joinPoint).error("Illegal argument: {} in {}()", describeArguments(joinPoint.getArgs()),
+                joinPoint.getSignature().getName());
+            throw e;
+        } finally {
+            long duration = System.nanoTime() - start;
+            timer.record(duration, TimeUnit.NANOSECONDS);
+            if (duration > slowCallThresholdNanos) {
+                logger(joinPoint).warn("Slow call: {}() took {} ms with argument[s] = {}", joinPoint.getSignature().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(duration), describeArguments(joinPoint.getArgs()));
+            }
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object target = joinPoint.getTarget();
+        Class<?> targetClass = target != null ? target.getClass() : method.getDeclaringClass();
+        Map<Method, Timer> methodTimers = timers.get(targetClass);
+        Timer timer = methodTimers.get(method);
+        if (timer == null) {
+            timer = methodTimers.computeIfAbsent(method, key -> createTimer(targetClass, key));
+        }
+        return timer;
+    }
+
+    private Timer createTimer(Class<?> targetClass, Method method) {
+        Class<?> type = userType(targetClass, method);
+        String packageName = type.getPackage() != null ? type.getPackage().getName() : "";
+        String layer = packageName.contains(".repository") ? "repository" :
+            packageName.contains(".service") ? "service" :
+            packageName.contains(".web.rest") ? "rest" : "other";
+        return Timer.builder("application.calls")
+            .description("Time taken by the repository, service and REST calls")
+            .tag("layer", layer)
+            .tag("class", type.getSimpleName())
+            .tag("method", method.getName())
+            .publishPercentiles(properties.getPercentiles())
+            .publishPercentileHistogram(properties.isPercentileHistogram())
+            .register(meterRegistry);
+    }
+
+    /**
+     * The class to name the timer after: the repository interface rather than the JDK proxy implementing it, and the
+     * bean class rather than its CGLIB subclass.
+     */
+    private static Class<?> userType(Class<?> targetClass, Method method) {
+        if (Proxy.isProxyClass(targetClass)) {
+            for (Class<?> type : targetClass.getInterfaces()) {
+                if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                    return type;
+                }
+            }
+            return method.getDeclaringClass();
+        }
+        return ClassUtils.getUserClass(targetClass);
+    }
+
+    /**
+     * Describes the arguments of a call by their types, and their sizes for collections, maps, arrays, strings and
+     * pages, never by their values.
+     *
+     * @param args the arguments of the call.
+     * @return the description of the arguments.
+     */
+    static String describeArguments(Object[] args) {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (Object arg : args) {
+            joiner.add(describe(arg));
+        }
+        return joiner.toString();
+    }
+
+    private static String describe(Object arg) {
+        if (arg == null) {
+            return "null";
+        }
+        if (arg.getClass().isArray()) {
+            return arg.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(arg) + "]";
+        }
+        String type = ClassUtils.getUserClass(arg).getSimpleName();
+        if (arg instanceof Collection) {
+            return type + "(size=" + ((Collection<?>) arg).size() + ")";
+        }
+        if (arg instanceof Map) {
+            return type + "(size=" + ((Map<?, ?>) arg).size() + ")";
+        }
+        if (arg instanceof CharSequence) {
+            return type + "(length=" + ((CharSequence) arg).length() + ")";
+        }
+        if (arg instanceof Pageable && ((Pageable) arg).isPaged()) {
+            return type + "(size=" + ((Pageable) arg).getPageSize() + ")";
+        }
+        return type;
+    }
 }
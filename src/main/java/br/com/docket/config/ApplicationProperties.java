@@ -1,5 +1,6 @@
 package br.com.docket.config;
 
+import com.hazelcast.config.InMemoryFormat;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,4 +11,667 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Cache cache = new Cache();
+
+    private final Audit audit = new Audit();
+
+    private final Password password = new Password();
+
+    private final LoginRateLimit loginRateLimit = new LoginRateLimit();
+
+    private final Logging logging = new Logging();
+
+    private final SqlStatements sqlStatements = new SqlStatements();
+
+    private final BulkImport bulkImport = new BulkImport();
+
+    private final Changes changes = new Changes();
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public Password getPassword() {
+        return password;
+    }
+
+    public LoginRateLimit getLoginRateLimit() {
+        return loginRateLimit;
+    }
+
+    public Logging getLogging() {
+        return logging;
+    }
+
+    public SqlStatements getSqlStatements() {
+        return sqlStatements;
+    }
+
+    public BulkImport getBulkImport() {
+        return bulkImport;
+    }
+
+    public Changes getChanges() {
+        return changes;
+    }
+
+    public static class Cache {
+
+        private CacheType type = CacheType.DISTRIBUTED;
+
+        private final Local local = new Local();
+
+        private final NearCache nearCache = new NearCache();
+
+        public CacheType getType() {
+            return type;
+        }
+
+        public void setType(CacheType type) {
+            this.type = type;
+        }
+
+        public Local getLocal() {
+            return local;
+        }
+
+        public NearCache getNearCache() {
+            return nearCache;
+        }
+    }
+
+    /**
+     * Topology of the Spring caches.
+     */
+    public enum CacheType {
+        /**
+         * Caffeine caches only, no Hazelcast member is started.
+         */
+        LOCAL,
+        /**
+         * Hazelcast distributed maps only.
+         */
+        DISTRIBUTED,
+        /**
+         * Caffeine caches in front of the Hazelcast maps, invalidated through a Hazelcast topic.
+         */
+        TWO_LEVEL
+    }
+
+    /**
+     * Settings of the Caffeine caches used by the local and two-level cache types.
+     */
+    public static class Local {
+
+        private long maxSize = 10000;
+
+        private int timeToLiveSeconds = 3600;
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    /**
+     * Near-cache settings of the user lookup caches, kept on each node in front of the distributed maps.
+     */
+    public static class NearCache {
+
+        private boolean enabled = true;
+
+        private InMemoryFormat inMemoryFormat = InMemoryFormat.OBJECT;
+
+        private int maxSize = 10000;
+
+        private int timeToLiveSeconds = 3600;
+
+        private int maxIdleSeconds = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public InMemoryFormat getInMemoryFormat() {
+            return inMemoryFormat;
+        }
+
+        public void setInMemoryFormat(InMemoryFormat inMemoryFormat) {
+            this.inMemoryFormat = inMemoryFormat;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getMaxIdleSeconds() {
+            return maxIdleSeconds;
+        }
+
+        public void setMaxIdleSeconds(int maxIdleSeconds) {
+            this.maxIdleSeconds = maxIdleSeconds;
+        }
+    }
+
+    public static class Audit {
+
+        private final Writer writer = new Writer();
+
+        private final Purge purge = new Purge();
+
+        private final Partitioning partitioning = new Partitioning();
+
+        public Writer getWriter() {
+            return writer;
+        }
+
+        public Purge getPurge() {
+            return purge;
+        }
+
+        public Partitioning getPartitioning() {
+            return partitioning;
+        }
+    }
+
+    /**
+     * Settings of the audit table partitions, used once the 'audit-partitioning' Liquibase changeset has run.
+     */
+    public static class Partitioning {
+
+        private PartitionGranularity granularity = PartitionGranularity.MONTH;
+
+        private int partitionsAhead = 2;
+
+        public PartitionGranularity getGranularity() {
+            return granularity;
+        }
+
+        public void setGranularity(PartitionGranularity granularity) {
+            this.granularity = granularity;
+        }
+
+        public int getPartitionsAhead() {
+            return partitionsAhead;
+        }
+
+        public void setPartitionsAhead(int partitionsAhead) {
+            this.partitionsAhead = partitionsAhead;
+        }
+    }
+
+    /**
+     * Date range covered by each audit event partition.
+     */
+    public enum PartitionGranularity {
+        DAY,
+        MONTH
+    }
+
+    /**
+     * Settings of the nightly removal of the audit events older than {@code jhipster.audit-events.retention-period}.
+     */
+    public static class Purge {
+
+        private int batchSize = 500;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Settings of the background writer persisting the audit events in batches.
+     */
+    public static class Writer {
+
+        private boolean async = true;
+
+        private int queueCapacity = 10000;
+
+        private int batchSize = 50;
+
+        private long flushIntervalMs = 500;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+        private long blockTimeoutMs = 1000;
+
+        private String spillDirectory = System.getProperty("java.io.tmpdir") + "/interview-audit-spill";
+
+        private long shutdownTimeoutMs = 10000;
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public long getBlockTimeoutMs() {
+            return blockTimeoutMs;
+        }
+
+        public void setBlockTimeoutMs(long blockTimeoutMs) {
+            this.blockTimeoutMs = blockTimeoutMs;
+        }
+
+        public String getSpillDirectory() {
+            return spillDirectory;
+        }
+
+        public void setSpillDirectory(String spillDirectory) {
+            this.spillDirectory = spillDirectory;
+        }
+
+        public long getShutdownTimeoutMs() {
+            return shutdownTimeoutMs;
+        }
+
+        public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+            this.shutdownTimeoutMs = shutdownTimeoutMs;
+        }
+    }
+
+    /**
+     * What to do with an audit event when the queue of the writer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait for room in the queue, at most {@code block-timeout-ms}, then drop the event.
+         */
+        BLOCK,
+        /**
+         * Drop the oldest queued event to make room for the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Append the event to a file of {@code spill-directory}, persisted once the queue has drained.
+         */
+        SPILL
+    }
+
+    /**
+     * Settings of the password hashing, see {@link br.com.docket.security.PasswordHashingService}.
+     */
+    public static class Password {
+
+        private boolean autoTune = true;
+
+        private long targetDurationMs = 250;
+
+        private int minStrength = 10;
+
+        private int maxStrength = 16;
+
+        private int strength = 10;
+
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+
+        private int queueCapacity = 100;
+
+        public boolean isAutoTune() {
+            return autoTune;
+        }
+
+        public void setAutoTune(boolean autoTune) {
+            this.autoTune = autoTune;
+        }
+
+        public long getTargetDurationMs() {
+            return targetDurationMs;
+        }
+
+        public void setTargetDurationMs(long targetDurationMs) {
+            this.targetDurationMs = targetDurationMs;
+        }
+
+        public int getMinStrength() {
+            return minStrength;
+        }
+
+        public void setMinStrength(int minStrength) {
+            this.minStrength = minStrength;
+        }
+
+        public int getMaxStrength() {
+            return maxStrength;
+        }
+
+        public void setMaxStrength(int maxStrength) {
+            this.maxStrength = maxStrength;
+        }
+
+        public int getStrength() {
+            return strength;
+        }
+
+        public void setStrength(int strength) {
+            this.strength = strength;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    /**
+     * Settings of the login attempts limiter, see {@link br.com.docket.security.LoginRateLimiter}.
+     */
+    public static class LoginRateLimit {
+
+        private boolean enabled = true;
+
+        private boolean replicated = false;
+
+        private int slots = 65536;
+
+        private final TokenBucket login = new TokenBucket(5, 60000);
+
+        private final TokenBucket address = new TokenBucket(50, 1000);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isReplicated() {
+            return replicated;
+        }
+
+        public void setReplicated(boolean replicated) {
+            this.replicated = replicated;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        public void setSlots(int slots) {
+            this.slots = slots;
+        }
+
+        public TokenBucket getLogin() {
+            return login;
+        }
+
+        public TokenBucket getAddress() {
+            return address;
+        }
+    }
+
+    /**
+     * A bucket of {@code capacity} tokens, one of which is added back every {@code refill-period-ms}.
+     */
+    public static class TokenBucket {
+
+        private int capacity;
+
+        private long refillPeriodMs;
+
+        public TokenBucket(int capacity, long refillPeriodMs) {
+            this.capacity = capacity;
+            this.refillPeriodMs = refillPeriodMs;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public long getRefillPeriodMs() {
+            return refillPeriodMs;
+        }
+
+        public void setRefillPeriodMs(long refillPeriodMs) {
+            this.refillPeriodMs = refillPeriodMs;
+        }
+    }
+
+    /**
+     * Settings of the {@link br.com.docket.aop.logging.LoggingAspect}.
+     */
+    public static class Logging {
+
+        private AspectMode aspectMode = AspectMode.LOG;
+
+        private long slowCallThresholdMs = 500;
+
+        private double[] percentiles = {0.5, 0.95, 0.99};
+
+        private boolean percentileHistogram = false;
+
+        public AspectMode getAspectMode() {
+            return aspectMode;
+        }
+
+        public void setAspectMode(AspectMode aspectMode) {
+            this.aspectMode = aspectMode;
+        }
+
+        public long getSlowCallThresholdMs() {
+            return slowCallThresholdMs;
+        }
+
+        public void setSlowCallThresholdMs(long slowCallThresholdMs) {
+            this.slowCallThresholdMs = slowCallThresholdMs;
+        }
+
+        public double[] getPercentiles() {
+            return percentiles;
+        }
+
+        public void setPercentiles(double[] percentiles) {
+            this.percentiles = percentiles;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+    }
+
+    /**
+     * What the {@link br.com.docket.aop.logging.LoggingAspect} does around the repository, service and REST calls.
+     */
+    public enum AspectMode {
+        /**
+         * Log the arguments and results of every call at debug level, with the "dev" profile only.
+         */
+        LOG,
+        /**
+         * Time every call in a Micrometer timer per class and method, and log the calls slower than
+         * {@code slow-call-threshold-ms} with the types and sizes of their arguments, whatever the profile.
+         */
+        TIMING
+    }
+
+    /**
+     * Settings of the SQL statements counted per HTTP request, see {@link br.com.docket.config.sql.SqlStatementCounter}.
+     */
+    public static class SqlStatements {
+
+        private boolean enabled = true;
+
+        private int budget = 0;
+
+        private BudgetMode budgetMode = BudgetMode.NONE;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBudget() {
+            return budget;
+        }
+
+        public void setBudget(int budget) {
+            this.budget = budget;
+        }
+
+        public BudgetMode getBudgetMode() {
+            return budgetMode;
+        }
+
+        public void setBudgetMode(BudgetMode budgetMode) {
+            this.budgetMode = budgetMode;
+        }
+    }
+
+    /**
+     * What to do with an HTTP request running more SQL statements than the budget.
+     */
+    public enum BudgetMode {
+        /**
+         * Nothing, the statements are only measured.
+         */
+        NONE,
+        /**
+         * Log a warning naming the handler method.
+         */
+        WARN,
+        /**
+         * Throw an {@link IllegalStateException} once the request has been handled, which fails MockMvc tests.
+         * <p>
+         * Only allowed with the {@code test} profile: on a servlet container the response is already written and
+         * committed by then, and the client would get it anyway.
+         */
+        FAIL_IN_TESTS
+    }
+
+    /**
+     * Settings of the registry and certificate imports, see {@link br.com.docket.service.BulkImportService}.
+     */
+    public static class BulkImport {
+
+        private int chunkSize = 1000;
+
+        private int maxErrors = 1000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxErrors() {
+            return maxErrors;
+        }
+
+        public void setMaxErrors(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+    }
+
+    /**
+     * Settings of the change feed, see {@link br.com.docket.service.ChangeFeedService}.
+     */
+    public static class Changes {
+
+        private long settleMs = 5000;
+
+        public long getSettleMs() {
+            return settleMs;
+        }
+
+        public void setSettleMs(long settleMs) {
+            this.settleMs = settleMs;
+        }
+    }
 }
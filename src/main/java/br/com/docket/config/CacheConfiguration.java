@@ -1,33 +1,63 @@
 package br.com.docket.config;
 
+import br.com.docket.config.cache.CacheInvalidation;
+import br.com.docket.config.cache.TwoLevelCacheManager;
+import br.com.docket.repository.UserRepository;
+
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.JHipsterProperties;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.hazelcast.config.*;
+import com.hazelcast.hibernate.CacheEnvironment;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.monitor.NearCacheStats;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
 
+import org.hibernate.cfg.AvailableSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 import org.springframework.cache.CacheManager;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import io.github.jhipster.config.cache.PrefixedKeyGenerator;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 
 import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
+
+    private static final String LOCAL_CACHE_ONLY = "'${application.cache.type:distributed}'.equalsIgnoreCase('local')";
+
+    private static final String HAZELCAST_ENABLED = "!" + LOCAL_CACHE_ONLY;
+
+    private static final List<String> NEAR_CACHED_MAPS = Collections.unmodifiableList(Arrays.asList(
+        UserRepository.USERS_BY_LOGIN_CACHE, UserRepository.USERS_BY_EMAIL_CACHE));
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
 
@@ -35,8 +65,11 @@ public class CacheConfiguration {
 
     private final Environment env;
 
-    public CacheConfiguration(Environment env) {
+    private final ApplicationProperties applicationProperties;
+
+    public CacheConfiguration(Environment env, ApplicationProperties applicationProperties) {
         this.env = env;
+        this.applicationProperties = applicationProperties;
     }
 
     @PreDestroy
@@ -46,12 +79,52 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public CacheManager cacheManager(HazelcastInstance hazelcastInstance) {
-        log.debug("Starting HazelcastCacheManager");
-        return new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance);
+    public CacheManager cacheManager(ObjectProvider<HazelcastInstance> hazelcastInstance) {
+        switch (applicationProperties.getCache().getType()) {
+            case LOCAL:
+                log.debug("Starting CaffeineCacheManager");
+                return localCacheManager();
+            case TWO_LEVEL:
+                log.debug("Starting TwoLevelCacheManager");
+                ITopic<CacheInvalidation> invalidationTopic = hazelcastInstance.getObject().getTopic(TwoLevelCacheManager.INVALIDATION_TOPIC);
+                return new TwoLevelCacheManager(localCacheManager(),
+                    new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance.getObject()), invalidationTopic);
+            default:
+                log.debug("Starting HazelcastCacheManager");
+                return new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance.getObject());
+        }
+    }
+
+    private CaffeineCacheManager localCacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+            .maximumSize(applicationProperties.getCache().getLocal().getMaxSize())
+            .expireAfterWrite(applicationProperties.getCache().getLocal().getTimeToLiveSeconds(), TimeUnit.SECONDS));
+        return cacheManager;
+    }
+
+    /**
+     * Makes the Hibernate second-level cache use the Hazelcast instance configured here, which also
+     * guarantees that this instance is started before the entity manager factory.
+     */
+    @Bean
+    @ConditionalOnExpression(HAZELCAST_ENABLED)
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(HazelcastInstance hazelcastInstance) {
+        return hibernateProperties -> hibernateProperties.put(CacheEnvironment.HAZELCAST_INSTANCE_NAME, hazelcastInstance.getName());
+    }
+
+    /**
+     * The Hibernate second-level cache regions live in Hazelcast: without a Hazelcast member, it is disabled.
+     */
+    @Bean
+    @ConditionalOnExpression(LOCAL_CACHE_ONLY)
+    public HibernatePropertiesCustomizer localHibernatePropertiesCustomizer() {
+        log.info("Local cache only, the Hibernate second-level cache is disabled");
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
     }
 
     @Bean
+    @ConditionalOnExpression(HAZELCAST_ENABLED)
     public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
         log.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("interview");
@@ -74,6 +147,18 @@ public class CacheConfiguration {
         }
         config.getMapConfigs().put("default", initializeDefaultMapConfig(jHipsterProperties));
 
+        // Full reference is available at: https://docs.hazelcast.org/docs/latest/manual/html-single/#configuring-hibernate-second-level-cache
+        config.getMapConfigs().put("br.com.docket.domain.*", initializeDomainMapConfig(jHipsterProperties));
+
+        if (applicationProperties.getCache().getNearCache().isEnabled()) {
+            for (String mapName : NEAR_CACHED_MAPS) {
+                MapConfig mapConfig = initializeDefaultMapConfig(jHipsterProperties);
+                mapConfig.setName(mapName);
+                mapConfig.setNearCacheConfig(initializeNearCacheConfig(applicationProperties.getCache().getNearCache()));
+                config.getMapConfigs().put(mapName, mapConfig);
+            }
+        }
+
         // Full reference is available at: https://docs.hazelcast.org/docs/management-center/3.9/manual/html/Deploying_and_Starting.html
         config.setManagementCenterConfig(initializeDefaultManagementCenterConfig(jHipsterProperties));
         return Hazelcast.newHazelcastInstance(config);
@@ -117,6 +202,53 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
+    private NearCacheConfig initializeNearCacheConfig(ApplicationProperties.NearCache nearCache) {
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.setInMemoryFormat(nearCache.getInMemoryFormat());
+
+        /*
+        Evictions and updates of the map (for example from UserService.clearUserCaches)
+        are broadcast to every node, which drops its near-cached copy.
+        */
+        nearCacheConfig.setInvalidateOnChange(true);
+
+        // Members also keep the entries they own, not only the remote ones
+        nearCacheConfig.setCacheLocalEntries(true);
+        nearCacheConfig.setTimeToLiveSeconds(nearCache.getTimeToLiveSeconds());
+        nearCacheConfig.setMaxIdleSeconds(nearCache.getMaxIdleSeconds());
+        nearCacheConfig.setEvictionConfig(new EvictionConfig(nearCache.getMaxSize(), EvictionConfig.MaxSizePolicy.ENTRY_COUNT, EvictionPolicy.LRU));
+        return nearCacheConfig;
+    }
+
+    /**
+     * Exposes the near-cache hits, misses and hit ratio of the user lookup caches.
+     */
+    @Bean
+    @ConditionalOnExpression(HAZELCAST_ENABLED)
+    public MeterBinder nearCacheMetrics(HazelcastInstance hazelcastInstance) {
+        return registry -> {
+            if (!applicationProperties.getCache().getNearCache().isEnabled()) {
+                return;
+            }
+            for (String mapName : NEAR_CACHED_MAPS) {
+                IMap<Object, Object> map = hazelcastInstance.getMap(mapName);
+                HazelcastCacheMetrics.monitor(registry, map);
+                Gauge.builder("cache.near.hit.ratio", map, CacheConfiguration::nearCacheHitRatio)
+                    .tag("cache", mapName)
+                    .description("The ratio of near-cache lookups that were hits")
+                    .register(registry);
+            }
+        };
+    }
+
+    private static double nearCacheHitRatio(IMap<Object, Object> map) {
+        NearCacheStats stats = map.getLocalMapStats().getNearCacheStats();
+        if (stats == null || stats.getHits() + stats.getMisses() == 0) {
+            return Double.NaN;
+        }
+        return (double) stats.getHits() / (stats.getHits() + stats.getMisses());
+    }
+
     private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
         MapConfig mapConfig = new MapConfig();
         mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
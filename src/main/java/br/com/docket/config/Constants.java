@@ -12,6 +12,9 @@ public final class Constants {
     public static final String DEFAULT_LANGUAGE = "en";
     public static final String ANONYMOUS_USER = "anonymoususer";
 
+    // Ids reserved per sequence call by Hibernate's pooled-lo optimizer, the incrementBy of the Liquibase sequences
+    public static final int SEQUENCE_ALLOCATION_SIZE = 50;
+
     private Constants() {
     }
 }
@@ -3,7 +3,9 @@ package br.com.docket.config;
 import br.com.docket.aop.logging.LoggingAspect;
 
 import io.github.jhipster.config.JHipsterConstants;
+import io.micrometer.core.instrument.MeterRegistry;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 
@@ -13,7 +15,17 @@ public class LoggingAspectConfiguration {
 
     @Bean
     @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    public LoggingAspect loggingAspect(Environment env, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        return new LoggingAspect(env, applicationProperties, meterRegistry);
+    }
+
+    /**
+     * The aspect outside of the "dev" profile, only to time the calls.
+     */
+    @Bean
+    @Profile("!" + JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
+    @ConditionalOnProperty(name = "application.logging.aspect-mode", havingValue = "timing")
+    public LoggingAspect timingLoggingAspect(Environment env, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        return new LoggingAspect(env, applicationProperties, meterRegistry);
     }
 }
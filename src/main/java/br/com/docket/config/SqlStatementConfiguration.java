@@ -0,0 +1,50 @@
+package br.com.docket.config;
+
+import br.com.docket.config.sql.CountingStatementInspector;
+import br.com.docket.config.sql.EntityLoadCountingIntegrator;
+import br.com.docket.config.sql.JdbcTimeSessionEventListener;
+import br.com.docket.config.sql.SqlStatementMetricsFilter;
+
+import io.github.jhipster.config.JHipsterConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+import java.util.Collections;
+
+/**
+ * Counts the SQL statements, JDBC time and loaded entities of each HTTP request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.sql-statements.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCountingCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimeSessionEventListener.class.getName());
+            hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> Collections.singletonList(new EntityLoadCountingIntegrator()));
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry, Environment env) {
+        if (applicationProperties.getSqlStatements().getBudgetMode() == ApplicationProperties.BudgetMode.FAIL_IN_TESTS &&
+            !env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_TEST))) {
+            throw new IllegalStateException("application.sql-statements.budget-mode fail-in-tests is only allowed with the " +
+                JHipsterConstants.SPRING_PROFILE_TEST + " profile, the responses over the budget are already sent when it fails");
+        }
+        return new FilterRegistrationBean<>(new SqlStatementMetricsFilter(applicationProperties, meterRegistry));
+    }
+}
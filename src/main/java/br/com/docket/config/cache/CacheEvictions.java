@@ -0,0 +1,45 @@
+package br.com.docket.config.cache;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.QueryConstants;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+
+/**
+ * Evicts many entries of a Spring {@link Cache} at once, with a single call to the underlying cache when it
+ * supports it, rather than one {@link Cache#evict(Object)} per key.
+ */
+public final class CacheEvictions {
+
+    private CacheEvictions() {
+    }
+
+    /**
+     * Evict the given keys from a cache.
+     *
+     * @param cache the cache.
+     * @param keys  the keys to evict.
+     */
+    @SuppressWarnings("unchecked")
+    public static void evictAll(Cache cache, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (cache instanceof TwoLevelCache) {
+            ((TwoLevelCache) cache).evictAll(keys);
+            return;
+        }
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof IMap) {
+            ((IMap<Object, Object>) nativeCache)
+                .removeAll(Predicates.in(QueryConstants.KEY_ATTRIBUTE_NAME.value(), keys.toArray(new String[0])));
+        } else if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).invalidateAll(keys);
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.docket.config.cache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Message published by a node to make the other nodes drop an entry, some entries, or all the entries, of their local
+ * cache.
+ */
+public class CacheInvalidation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String cacheName;
+
+    private final Object key;
+
+    private final ArrayList<String> keys;
+
+    public CacheInvalidation(String cacheName, Object key) {
+        this(cacheName, key, null);
+    }
+
+    private CacheInvalidation(String cacheName, Object key, ArrayList<String> keys) {
+        this.cacheName = cacheName;
+        this.key = key;
+        this.keys = keys;
+    }
+
+    /**
+     * @param cacheName the name of the cache.
+     * @param keys      the keys to invalidate.
+     * @return an invalidation of several keys.
+     */
+    public static CacheInvalidation ofKeys(String cacheName, Collection<String> keys) {
+        return new CacheInvalidation(cacheName, null, new ArrayList<>(keys));
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * @return the key to invalidate, or {@code null} if the whole cache must be cleared.
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * @return the keys to invalidate, or {@code null} if the invalidation is about a single key.
+     */
+    public ArrayList<String> getKeys() {
+        return keys;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" +
+            "cacheName='" + cacheName + "'" +
+            ", key=" + key +
+            ", keys=" + keys +
+            "}";
+    }
+}
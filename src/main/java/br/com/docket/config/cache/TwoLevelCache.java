@@ -0,0 +1,167 @@
+package br.com.docket.config.cache;
+
+import com.hazelcast.core.ITopic;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link Cache} reading from a local cache first, then from a distributed one.
+ * <p>
+ * Every write goes to both caches and publishes a {@link CacheInvalidation}, so that the other
+ * nodes drop the entry from their own local cache.
+ * <p>
+ * A value read from the distributed cache is only kept in the local cache if no invalidation of its key happened
+ * meanwhile, otherwise a value replaced on another node could be read before its invalidation is received, and be
+ * put in the local cache after it. Invalidations are counted per stripe of keys, so that no counter is kept per key.
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final int STRIPES = 64;
+
+    private final Cache local;
+
+    private final Cache distributed;
+
+    private final ITopic<CacheInvalidation> invalidationTopic;
+
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    private final AtomicLong clears = new AtomicLong();
+
+    public TwoLevelCache(Cache local, Cache distributed, ITopic<CacheInvalidation> invalidationTopic) {
+        this.local = local;
+        this.distributed = distributed;
+        this.invalidationTopic = invalidationTopic;
+    }
+
+    @Override
+    public String getName() {
+        return distributed.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return distributed.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value == null) {
+            long stamp = invalidationStamp(key);
+            value = distributed.get(key);
+            if (value != null) {
+                putLocal(key, value.get(), stamp);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        long stamp = invalidationStamp(key);
+        T value = distributed.get(key, valueLoader);
+        putLocal(key, value, stamp);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        distributed.put(key, value);
+        invalidated(key);
+        local.put(key, value);
+        invalidationTopic.publish(new CacheInvalidation(getName(), key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        distributed.evict(key);
+        invalidated(key);
+        local.evict(key);
+        invalidationTopic.publish(new CacheInvalidation(getName(), key));
+    }
+
+    /**
+     * Evict many entries from both caches, publishing a single {@link CacheInvalidation}.
+     *
+     * @param keys the keys to evict.
+     */
+    public void evictAll(Collection<String> keys) {
+        CacheEvictions.evictAll(distributed, keys);
+        keys.forEach(this::invalidated);
+        CacheEvictions.evictAll(local, keys);
+        invalidationTopic.publish(CacheInvalidation.ofKeys(getName(), keys));
+    }
+
+    @Override
+    public void clear() {
+        distributed.clear();
+        clears.incrementAndGet();
+        local.clear();
+        invalidationTopic.publish(new CacheInvalidation(getName(), null));
+    }
+
+    /**
+     * Drop the entries of an invalidation, or all the entries if it has no key, from the local cache only.
+     *
+     * @param invalidation the invalidation received from another node.
+     */
+    void invalidateLocal(CacheInvalidation invalidation) {
+        if (invalidation.getKeys() != null) {
+            invalidation.getKeys().forEach(this::invalidated);
+            CacheEvictions.evictAll(local, invalidation.getKeys());
+        } else if (invalidation.getKey() == null) {
+            clears.incrementAndGet();
+            local.clear();
+        } else {
+            invalidated(invalidation.getKey());
+            local.evict(invalidation.getKey());
+        }
+    }
+
+    /**
+     * Put a value read from the distributed cache in the local cache, and drop it again if its key was invalidated
+     * since the stamp was taken: the invalidation is counted before the local entry is dropped, so either it drops
+     * the value, or the value is dropped here.
+     */
+    private void putLocal(Object key, Object value, long stamp) {
+        local.put(key, value);
+        if (invalidationStamp(key) != stamp) {
+            local.evict(key);
+        }
+    }
+
+    private long invalidationStamp(Object key) {
+        return clears.get() + invalidations.get(stripe(key));
+    }
+
+    private void invalidated(Object key) {
+        invalidations.incrementAndGet(stripe(key));
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.docket.config.cache;
+
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link CacheManager} providing {@link TwoLevelCache}s: a local cache (L1) in front of a distributed one (L2).
+ * <p>
+ * Local caches are kept consistent across nodes through invalidation messages published on a Hazelcast topic.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    public static final String INVALIDATION_TOPIC = "cacheInvalidations";
+
+    private final Logger log = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private final CacheManager localCacheManager;
+
+    private final CacheManager distributedCacheManager;
+
+    private final ITopic<CacheInvalidation> invalidationTopic;
+
+    public TwoLevelCacheManager(CacheManager localCacheManager, CacheManager distributedCacheManager, ITopic<CacheInvalidation> invalidationTopic) {
+        this.localCacheManager = localCacheManager;
+        this.distributedCacheManager = distributedCacheManager;
+        this.invalidationTopic = invalidationTopic;
+        invalidationTopic.addMessageListener(this::onInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName ->
+            new TwoLevelCache(localCacheManager.getCache(cacheName), distributedCacheManager.getCache(cacheName), invalidationTopic));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return distributedCacheManager.getCacheNames();
+    }
+
+    private void onInvalidation(Message<CacheInvalidation> message) {
+        if (message.getPublishingMember() != null && message.getPublishingMember().localMember()) {
+            return;
+        }
+        CacheInvalidation invalidation = message.getMessageObject();
+        log.trace("Received {}", invalidation);
+        TwoLevelCache cache = caches.get(invalidation.getCacheName());
+        if (cache != null) {
+            cache.invalidateLocal(invalidation);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Cache managers specific code.
+ */
+package br.com.docket.config.cache;
@@ -0,0 +1,17 @@
+package br.com.docket.config.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts, and records when asked to, every statement Hibernate prepares, leaving it unchanged.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementCounter.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.docket.config.sql;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Counts every entity Hibernate loads, from the database or the second level cache, in the {@link SqlStatementCounter}.
+ */
+public class EntityLoadCountingIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+            SessionFactoryServiceRegistry serviceRegistry) {
+        serviceRegistry.getService(EventListenerRegistry.class)
+            .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> SqlStatementCounter.entityLoaded());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nothing to release
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.docket.config.sql;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the time spent executing statements and batches to the {@link SqlStatementCounter}.
+ * <p>
+ * Hibernate creates one listener per session, by reflection, see {@code hibernate.session.events.auto}.
+ */
+public class JdbcTimeSessionEventListener extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private long executionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementCounter.statementExecuted(System.nanoTime() - executionStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementCounter.statementExecuted(System.nanoTime() - executionStart);
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.docket.config.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts, per thread, the SQL statements prepared by Hibernate, the time spent executing them and the entities loaded.
+ * <p>
+ * The counts only grow: take a {@link #snapshot()} before and after a unit of work, and compare them with
+ * {@link Snapshot#since(Snapshot)}. A request is handled on a single thread, MockMvc ones on the thread of the test.
+ * <p>
+ * The SQL of the statements can also be recorded, between {@link #startRecording()} and {@link #stopRecording()}, to
+ * check what Hibernate generates.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * @return the counts of the current thread so far.
+     */
+    public static Snapshot snapshot() {
+        Counts counts = COUNTS.get();
+        return new Snapshot(counts.statements, counts.jdbcNanos, counts.entities);
+    }
+
+    /**
+     * Start recording the SQL of the statements prepared by the current thread.
+     */
+    public static void startRecording() {
+        RECORDED.set(new ArrayList<>());
+    }
+
+    /**
+     * Stop recording the SQL of the statements prepared by the current thread.
+     *
+     * @return the SQL of the statements prepared since {@link #startRecording()}, in order.
+     */
+    public static List<String> stopRecording() {
+        List<String> recorded = RECORDED.get();
+        RECORDED.remove();
+        return recorded != null ? recorded : Collections.emptyList();
+    }
+
+    static void statementPrepared(String sql) {
+        COUNTS.get().statements++;
+        List<String> recorded = RECORDED.get();
+        if (recorded != null) {
+            recorded.add(sql);
+        }
+    }
+
+    static void statementExecuted(long nanos) {
+        COUNTS.get().jdbcNanos += nanos;
+    }
+
+    static void entityLoaded() {
+        COUNTS.get().entities++;
+    }
+
+    private static final class Counts {
+
+        private long statements;
+
+        private long jdbcNanos;
+
+        private long entities;
+    }
+
+    /**
+     * The counts of a thread at a given time, or between two times.
+     */
+    public static final class Snapshot {
+
+        private final long statements;
+
+        private final long jdbcNanos;
+
+        private final long entities;
+
+        Snapshot(long statements, long jdbcNanos, long entities) {
+            this.statements = statements;
+            this.jdbcNanos = jdbcNanos;
+            this.entities = entities;
+        }
+
+        /**
+         * @param earlier a snapshot taken before this one, on the same thread.
+         * @return the counts between the two snapshots.
+         */
+        public Snapshot since(Snapshot earlier) {
+            return new Snapshot(statements - earlier.statements, jdbcNanos - earlier.jdbcNanos, entities - earlier.entities);
+        }
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getJdbcNanos() {
+            return jdbcNanos;
+        }
+
+        public long getEntities() {
+            return entities;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                "statements=" + statements +
+                ", jdbcNanos=" + jdbcNanos +
+                ", entities=" + entities +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.docket.config.sql;
+
+import br.com.docket.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the SQL statements, JDBC time and loaded entities of each HTTP request handled by a controller method, in
+ * distributions tagged with that method, and enforces the statement budget.
+ * <p>
+ * Percentiles can be published with the {@code management.metrics.distribution.percentiles.http.server.requests.sql}
+ * property.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final Logger log = LoggerFactory.getLogger(SqlStatementMetricsFilter.class);
+
+    private final ApplicationProperties.SqlStatements properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, HandlerMeters> handlerMeters = new ConcurrentHashMap<>();
+
+    public SqlStatementMetricsFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getSqlStatements();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+
+        SqlStatementCounter.Snapshot before = SqlStatementCounter.snapshot();
+        filterChain.doFilter(request, response);
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod)) {
+            return;
+        }
+        SqlStatementCounter.Snapshot counts = SqlStatementCounter.snapshot().since(before);
+        HandlerMeters meters = handlerMeters.computeIfAbsent(((HandlerMethod) handler).getMethod(), HandlerMeters::new);
+        meters.statements.record(counts.getStatements());
+        meters.jdbcTime.record(counts.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        meters.entities.record(counts.getEntities());
+        if (properties.getBudget() > 0 && counts.getStatements() > properties.getBudget()) {
+            overBudget(request, meters.handler, counts);
+        }
+    }
+
+    private void overBudget(HttpServletRequest request, String handler, SqlStatementCounter.Snapshot counts) {
+        String message = request.getMethod() + " " + request.getRequestURI() + " (" + handler + ") ran " +
+            counts.getStatements() + " SQL statements loading " + counts.getEntities() + " entities, over the budget of " +
+            properties.getBudget();
+        switch (properties.getBudgetMode()) {
+            case FAIL_IN_TESTS:
+                throw new IllegalStateException(message);
+            case WARN:
+                log.warn(message);
+                break;
+            case NONE:
+            default:
+        }
+    }
+
+    /**
+     * The meters of a controller method, tagged with {@code Class#method}.
+     */
+    private final class HandlerMeters {
+
+        private final String handler;
+
+        private final DistributionSummary statements;
+
+        private final Timer jdbcTime;
+
+        private final DistributionSummary entities;
+
+        HandlerMeters(Method method) {
+            this.handler = method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+            this.statements = DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("Number of SQL statements run per HTTP request")
+                .baseUnit("statements")
+                .tag("handler", handler)
+                .register(meterRegistry);
+            this.jdbcTime = Timer.builder("http.server.requests.sql.time")
+                .description("Time spent executing SQL statements per HTTP request")
+                .tag("handler", handler)
+                .register(meterRegistry);
+            this.entities = DistributionSummary.builder("http.server.requests.sql.entities")
+                .description("Number of entities loaded per HTTP request")
+                .baseUnit("entities")
+                .tag("handler", handler)
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Counting of the SQL statements run by Hibernate, per thread and per HTTP request.
+ */
+package br.com.docket.config.sql;
@@ -1,27 +1,74 @@
 package br.com.docket.controller;
 
-import br.com.docket.repository.CertificateRepository;
-import br.com.docket.repository.RegistryRepository;
+import br.com.docket.service.RegistryService;
+import br.com.docket.service.dto.RegistryListingDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring5.view.ThymeleafViewResolver;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 
 @Controller
 public class RegistryController {
 
-    private final RegistryRepository registryRepository;
-    private final CertificateRepository certificateRepository;
+    private static final List<String> ALLOWED_ORDERED_PROPERTIES = Collections.unmodifiableList(Arrays.asList("id", "name", "postalCode", "neighborhood", "city", "state"));
+
+    private static final Sort DEFAULT_SORT = Sort.by("name", "id");
+
+    private final RegistryService registryService;
+
+    private final ThymeleafViewResolver viewResolver;
 
-    public RegistryController(RegistryRepository registryRepository, CertificateRepository certificateRepository) {
-        this.registryRepository = registryRepository;
-        this.certificateRepository = certificateRepository;
+    public RegistryController(RegistryService registryService, ThymeleafViewResolver viewResolver) {
+        this.registryService = registryService;
+        this.viewResolver = viewResolver;
     }
 
     @GetMapping(value = "/allregistries")
-    public String showAllRegistries(Model model){
-        model.addAttribute("registries", registryRepository.findAll());
-        model.addAttribute("certificates", certificateRepository.findAll());
+    public String showAllRegistries(Model model, @PageableDefault(size = 20) Pageable pageable){
+        Page<RegistryListingDTO> page = registryService.findAllListings(withAllowedSort(pageable));
+        model.addAttribute("registries", page.getContent());
+        model.addAttribute("page", page);
         return "registry";
     }
 
+    /**
+     * Renders every registry on a single page.
+     * <p>
+     * The view is rendered while the registries are still being read from the database: Thymeleaf
+     * writes its output as it iterates, so memory stays flat and the first bytes are sent as soon as
+     * the response buffer fills, whatever the number of registries.
+     */
+    @GetMapping(value = "/allregistries/stream")
+    public void streamAllRegistries(HttpServletRequest request, HttpServletResponse response, Locale locale) throws Exception {
+        View view = viewResolver.resolveViewName("registry", locale);
+        registryService.streamAllListings(registries -> {
+            try {
+                view.render(Collections.singletonMap("registries", registries), request, response);
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not render the registry listing", e);
+            }
+        });
+    }
+
+    private Pageable withAllowedSort(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.isUnsorted() || !sort.stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains)) {
+            sort = DEFAULT_SORT;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
 }
@@ -0,0 +1,63 @@
+package br.com.docket.domain;
+
+import br.com.docket.repository.ChangeTrackingListener;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.EntityListeners;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
+
+/**
+ * Base abstract class for entities listed by the change feed, which hold when they were last modified and the change
+ * sequence of that modification.
+ * <p>
+ * Their version is incremented by each update, and an update from a stale version fails.
+ */
+@MappedSuperclass
+@EntityListeners(ChangeTrackingListener.class)
+public abstract class AbstractChangeTrackedEntity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "last_modified_date")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModifiedDate;
+
+    @Column(name = "change_sequence")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long changeSequence;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public abstract Long getId();
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    public Long getChangeSequence() {
+        return changeSequence;
+    }
+
+    public void setChangeSequence(Long changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+}
@@ -1,6 +1,9 @@
 package br.com.docket.domain;
 
+import br.com.docket.repository.AuthorityChangeListener;
+
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.persistence.Column;
@@ -14,6 +17,7 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "jhi_authority")
+@EntityListeners(AuthorityChangeListener.class)
 public class Authority implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -40,12 +44,13 @@ public class Authority implements Serializable {
         if (!(o instanceof Authority)) {
             return false;
         }
-        return Objects.equals(name, ((Authority) o).name);
+        // Through the getters, the other authority can be a lazy reference
+        return Objects.equals(getName(), ((Authority) o).getName());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(name);
+        return Objects.hashCode(getName());
     }
 
     // prettier-ignore
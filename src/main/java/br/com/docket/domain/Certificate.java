@@ -1,7 +1,13 @@
 package br.com.docket.domain;
 
+import br.com.docket.config.Constants;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 
 import java.io.Serializable;
@@ -11,13 +17,15 @@ import java.io.Serializable;
  */
 @Entity
 @Table(name = "certificate")
-public class Certificate implements Serializable {
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@DynamicUpdate
+public class Certificate extends AbstractChangeTrackedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "certificate_sequence", allocationSize = Constants.SEQUENCE_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "name")
@@ -1,5 +1,7 @@
 package br.com.docket.domain;
 
+import br.com.docket.config.Constants;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
@@ -20,7 +22,7 @@ public class PersistentAuditEvent implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "jhi_persistent_audit_event_sequence", allocationSize = Constants.SEQUENCE_ALLOCATION_SIZE)
     @Column(name = "event_id")
     private Long id;
 
@@ -1,6 +1,12 @@
 package br.com.docket.domain;
 
 
+import br.com.docket.config.Constants;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 
 import java.io.Serializable;
@@ -12,13 +18,15 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "registry")
-public class Registry implements Serializable {
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@DynamicUpdate
+public class Registry extends AbstractChangeTrackedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "registry_sequence", allocationSize = Constants.SEQUENCE_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "name")
@@ -40,6 +48,7 @@ public class Registry implements Serializable {
     private String state;
 
     @OneToMany(mappedBy = "registry")
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<Certificate> certificates = new HashSet<>();
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -28,7 +28,7 @@ public class User extends AbstractAuditingEntity implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "jhi_user_sequence", allocationSize = Constants.SEQUENCE_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull
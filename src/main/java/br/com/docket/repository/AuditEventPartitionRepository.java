@@ -0,0 +1,241 @@
+package br.com.docket.repository;
+
+import br.com.docket.config.ApplicationProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Manages the partitions of the audit tables, once they have been range-partitioned on PostgreSQL by the
+ * 'audit-partitioning' Liquibase changeset.
+ * <p>
+ * {@code jhi_persistent_audit_event} has a partition per day or per month on {@code event_date}, created in advance.
+ * {@code jhi_persistent_audit_evt_data} is partitioned on {@code event_id}: its open partition, up to
+ * {@code MAXVALUE}, is cut at the current value of the sequence when a new period starts.
+ * <p>
+ * On H2, or without that changeset, the tables are not partitioned and {@link #isPartitioned()} is {@code false}.
+ */
+@Repository
+public class AuditEventPartitionRepository {
+
+    private static final String EVENT_TABLE = "jhi_persistent_audit_event";
+
+    private static final String EVENT_DEFAULT_PARTITION = EVENT_TABLE + "_default";
+
+    private static final String DATA_TABLE = "jhi_persistent_audit_evt_data";
+
+    private static final String SEQUENCE = "jhi_persistent_audit_event_sequence";
+
+    private static final String MINVALUE = "MINVALUE";
+
+    private static final String MAXVALUE = "MAXVALUE";
+
+    private static final Pattern RANGE_BOUNDS = Pattern.compile("FOR VALUES FROM \\((.+)\\) TO \\((.+)\\)");
+
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventPartitionRepository.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationProperties.Partitioning properties;
+
+    private volatile Boolean partitioned;
+
+    public AuditEventPartitionRepository(JdbcTemplate jdbcTemplate, ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = applicationProperties.getAudit().getPartitioning();
+    }
+
+    /**
+     * @return {@code true} if the audit tables are partitioned, which is only checked once.
+     */
+    public boolean isPartitioned() {
+        if (partitioned == null) {
+            boolean postgresql = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName()));
+            partitioned = postgresql && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from pg_partitioned_table p join pg_class c on c.oid = p.partrelid " +
+                    "where c.relname = ?)", Boolean.class, EVENT_TABLE));
+        }
+        return partitioned;
+    }
+
+    /**
+     * Create the audit event partitions of the current period and of the {@code partitions-ahead} next ones, and cut
+     * the open audit event data partition if it was opened during a previous period.
+     *
+     * @param now the current instant.
+     */
+    @Transactional
+    public void createPartitions(Instant now) {
+        LocalDateTime currentPeriod = periodStart(LocalDateTime.ofInstant(now, ZoneOffset.UTC));
+        List<Partition> eventPartitions = partitions(EVENT_TABLE);
+        for (int i = 0; i <= properties.getPartitionsAhead(); i++) {
+            LocalDateTime start = plusPeriods(currentPeriod, i);
+            LocalDateTime end = plusPeriods(start, 1);
+            boolean covered = eventPartitions.stream()
+                .anyMatch(partition -> !partition.isDefault() &&
+                    toDateTime(partition.lower).isBefore(end) && toDateTime(partition.upper).isAfter(start));
+            if (!covered) {
+                createEventPartition(EVENT_TABLE + "_p" + SUFFIX_FORMAT.format(start), start, end);
+            }
+        }
+        cutDataPartition(DATA_TABLE + "_p" + SUFFIX_FORMAT.format(currentPeriod));
+    }
+
+    /**
+     * Drop the audit event partitions ending before the given instant, then the audit event data partitions of which
+     * all the events are gone.
+     *
+     * @param before the instant before which audit events are expired.
+     * @return the number of dropped partitions.
+     */
+    @Transactional
+    public int dropPartitionsBefore(Instant before) {
+        LocalDateTime cutoff = LocalDateTime.ofInstant(before, ZoneOffset.UTC);
+        int dropped = 0;
+        for (Partition partition : partitions(EVENT_TABLE)) {
+            if (!partition.isDefault() && !toDateTime(partition.upper).isAfter(cutoff)) {
+                log.debug("Dropping the expired audit event partition {}", partition.name);
+                jdbcTemplate.execute("drop table " + partition.name);
+                dropped++;
+            }
+        }
+        Long oldestEventId = jdbcTemplate.queryForObject("select min(event_id) from " + EVENT_TABLE, Long.class);
+        for (Partition partition : partitions(DATA_TABLE)) {
+            if (!MAXVALUE.equals(partition.upper) &&
+                (oldestEventId == null || Long.parseLong(partition.upper) <= oldestEventId)) {
+                log.debug("Dropping the expired audit event data partition {}", partition.name);
+                jdbcTemplate.execute("drop table " + partition.name);
+                dropped++;
+            }
+        }
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "select exists (select 1 from " + EVENT_DEFAULT_PARTITION + ")", Boolean.class))) {
+            log.warn("{} has audit events, which are only removed once a partition is created for their dates",
+                EVENT_DEFAULT_PARTITION);
+        }
+        return dropped;
+    }
+
+    /**
+     * Create a partition, moving into it the rows of the default partition falling in its range, which could not be
+     * attached otherwise.
+     */
+    private void createEventPartition(String name, LocalDateTime start, LocalDateTime end) {
+        log.debug("Creating the audit event partition {} from {} to {}", name, start, end);
+        jdbcTemplate.execute("create table " + name + " (like " + EVENT_TABLE + " including defaults including constraints)");
+        // event_date holds UTC dates, the bounds are written as literals so that the JVM time zone does not apply
+        String from = "'" + BOUND_FORMAT.format(start) + "'";
+        String to = "'" + BOUND_FORMAT.format(end) + "'";
+        jdbcTemplate.update("with moved as (delete from " + EVENT_DEFAULT_PARTITION + " where event_date >= " + from +
+            " and event_date < " + to + " returning *) insert into " + name + " select * from moved");
+        jdbcTemplate.execute("alter table " + EVENT_TABLE + " attach partition " + name +
+            " for values from (" + from + ") to (" + to + ")");
+    }
+
+    /**
+     * Give the open data partition an upper bound past which no event id has been handed out yet, and open a new one
+     * from there.
+     * <p>
+     * Hibernate's pooled-lo optimizer only hands out ids below the last value of the sequence plus its increment, so
+     * the ids still to be inserted in the cut partition belong to recent events, which keeps it until they expire.
+     */
+    private void cutDataPartition(String name) {
+        Optional<Partition> openPartition = partitions(DATA_TABLE).stream()
+            .filter(partition -> MAXVALUE.equals(partition.upper))
+            .findFirst();
+        if (!openPartition.isPresent()) {
+            log.warn("{} has no open partition, audit event data cannot be inserted", DATA_TABLE);
+            return;
+        }
+        Partition open = openPartition.get();
+        if (open.name.equals(name)) {
+            return;
+        }
+        jdbcTemplate.execute("lock table " + DATA_TABLE + " in access exclusive mode");
+        Long cut = jdbcTemplate.queryForObject("select s.last_value + p.seqincrement from " + SEQUENCE +
+            " s, pg_sequence p where p.seqrelid = '" + SEQUENCE + "'::regclass", Long.class);
+        if (!MINVALUE.equals(open.lower) && cut <= Long.parseLong(open.lower)) {
+            // No id was handed out since the open partition was opened, it would be cut empty
+            log.debug("Renaming the audit event data partition {} to {}", open.name, name);
+            jdbcTemplate.execute("alter table " + open.name + " rename to " + name);
+            return;
+        }
+        log.debug("Cutting the audit event data partition {} at {}, opening {}", open.name, cut, name);
+        jdbcTemplate.execute("alter table " + DATA_TABLE + " detach partition " + open.name);
+        jdbcTemplate.execute("alter table " + DATA_TABLE + " attach partition " + open.name +
+            " for values from (" + open.lower + ") to (" + cut + ")");
+        jdbcTemplate.execute("create table " + name + " partition of " + DATA_TABLE +
+            " for values from (" + cut + ") to (" + MAXVALUE + ")");
+    }
+
+    private List<Partition> partitions(String table) {
+        return jdbcTemplate.query("select c.relname, pg_get_expr(c.relpartbound, c.oid) from pg_inherits i " +
+                "join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent where p.relname = ?",
+            (resultSet, rowNum) -> new Partition(resultSet.getString(1), resultSet.getString(2)), table);
+    }
+
+    private LocalDateTime periodStart(LocalDateTime dateTime) {
+        LocalDateTime day = dateTime.truncatedTo(ChronoUnit.DAYS);
+        return properties.getGranularity() == ApplicationProperties.PartitionGranularity.DAY ? day : day.withDayOfMonth(1);
+    }
+
+    private LocalDateTime plusPeriods(LocalDateTime periodStart, int periods) {
+        return properties.getGranularity() == ApplicationProperties.PartitionGranularity.DAY ?
+            periodStart.plusDays(periods) : periodStart.plusMonths(periods);
+    }
+
+    private static LocalDateTime toDateTime(String bound) {
+        return LocalDateTime.parse(bound, BOUND_FORMAT);
+    }
+
+    /**
+     * A partition with its range bounds, as written by PostgreSQL without their quotes, or none for the default one.
+     */
+    private static final class Partition {
+
+        private final String name;
+
+        private final String lower;
+
+        private final String upper;
+
+        Partition(String name, String bounds) {
+            this.name = name;
+            Matcher matcher = RANGE_BOUNDS.matcher(bounds);
+            if (matcher.matches()) {
+                this.lower = unquote(matcher.group(1));
+                this.upper = unquote(matcher.group(2));
+            } else {
+                this.lower = null;
+                this.upper = null;
+            }
+        }
+
+        boolean isDefault() {
+            return upper == null;
+        }
+
+        private static String unquote(String bound) {
+            return bound.startsWith("'") && bound.endsWith("'") ? bound.substring(1, bound.length() - 1) : bound;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package br.com.docket.repository;
+
+import br.com.docket.config.ApplicationProperties;
+import br.com.docket.domain.PersistentAuditEvent;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Persists the audit events from a background thread, in batches.
+ * <p>
+ * Events are queued by {@link #write(PersistentAuditEvent)} and saved by a single writer thread, one transaction per
+ * batch, as soon as {@code batch-size} events are queued or {@code flush-interval-ms} after the first one. The inserts
+ * of a batch are sent in JDBC batches, see {@code hibernate.jdbc.batch_size}. When the queue is full the configured
+ * {@link ApplicationProperties.OverflowPolicy} applies. The queued and spilled events are persisted on shutdown.
+ */
+@Component
+public class AuditEventWriter {
+
+    private static final String SPILL_FILE_PREFIX = "audit-events-";
+
+    private static final String SPILL_FILE_SUFFIX = ".ndjson";
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventWriter.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Writer properties;
+
+    private final BlockingQueue<PersistentAuditEvent> queue;
+
+    private final Timer flushTimer;
+
+    private final Counter droppedCounter;
+
+    private final Counter spilledCounter;
+
+    private final Object spillLock = new Object();
+
+    private volatile boolean running;
+
+    private Thread writerThread;
+
+    public AuditEventWriter(PersistenceAuditEventRepository persistenceAuditEventRepository,
+            PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+            ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getAudit().getWriter();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Gauge.builder("audit.events.queue.size", queue, BlockingQueue::size)
+            .description("Number of audit events waiting to be persisted")
+            .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.events.flush")
+            .description("Time taken to persist a batch of audit events")
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.events.dropped")
+            .description("Number of audit events lost because the queue was full or their batch failed")
+            .register(meterRegistry);
+        this.spilledCounter = Counter.builder("audit.events.spilled")
+            .description("Number of audit events written to the spill directory because the queue was full")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isAsync()) {
+            return;
+        }
+        log.debug("Starting the audit event writer");
+        running = true;
+        writerThread = new Thread(this::run, "audit-event-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stop the writer thread once every queued and spilled event is persisted, waiting at most
+     * {@code shutdown-timeout-ms}.
+     */
+    @PreDestroy
+    public void stop() {
+        if (writerThread == null) {
+            return;
+        }
+        log.debug("Stopping the audit event writer, {} events still queued", queue.size());
+        running = false;
+        try {
+            writerThread.join(properties.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("The audit event writer did not stop in time, {} events were not persisted", queue.size());
+        } else {
+            // Events queued by requests which saw the writer still running
+            List<PersistentAuditEvent> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            if (!remaining.isEmpty()) {
+                flush(remaining);
+            }
+        }
+        writerThread = null;
+    }
+
+    /**
+     * Queue an audit event to be persisted, or persist it right away when the writer is not running.
+     *
+     * @param persistentAuditEvent the audit event to persist.
+     */
+    public void write(PersistentAuditEvent persistentAuditEvent) {
+        if (!running) {
+            flush(Collections.singletonList(persistentAuditEvent));
+            return;
+        }
+        if (queue.offer(persistentAuditEvent)) {
+            return;
+        }
+        switch (properties.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                while (!queue.offer(persistentAuditEvent)) {
+                    if (queue.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+                break;
+            case SPILL:
+                spill(persistentAuditEvent);
+                break;
+            case BLOCK:
+            default:
+                block(persistentAuditEvent);
+        }
+    }
+
+    private void block(PersistentAuditEvent persistentAuditEvent) {
+        try {
+            if (queue.offer(persistentAuditEvent, properties.getBlockTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Audit event queue still full after {} ms, dropping {}", properties.getBlockTimeoutMs(), persistentAuditEvent);
+        droppedCounter.increment();
+    }
+
+    private void run() {
+        List<PersistentAuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        replaySpilledEvents();
+        while (running || !queue.isEmpty()) {
+            try {
+                PersistentAuditEvent first = queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpilledEvents();
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                log.warn("The audit event writer was interrupted, {} events still queued", queue.size());
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in the audit event writer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        replaySpilledEvents();
+    }
+
+    /**
+     * Wait for the batch to fill up, at most {@code flush-interval-ms} after its first event.
+     */
+    private void fillBatch(List<PersistentAuditEvent> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        while (batch.size() < properties.getBatchSize()) {
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getBatchSize() || remaining <= 0 || !running) {
+                return;
+            }
+            PersistentAuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PersistentAuditEvent> batch) {
+        try {
+            persist(batch);
+        } catch (RuntimeException e) {
+            log.error("Could not persist {} audit events", batch.size(), e);
+            droppedCounter.increment(batch.size());
+        }
+    }
+
+    private void persist(List<PersistentAuditEvent> batch) {
+        flushTimer.record(() -> transactionTemplate.execute(status -> persistenceAuditEventRepository.saveAll(batch)));
+    }
+
+    private void spill(PersistentAuditEvent persistentAuditEvent) {
+        synchronized (spillLock) {
+            try {
+                Path spillDirectory = Files.createDirectories(Paths.get(properties.getSpillDirectory()));
+                Path spillFile = spillDirectory.resolve(SPILL_FILE_PREFIX + "current" + SPILL_FILE_SUFFIX);
+                try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(objectMapper.writeValueAsString(persistentAuditEvent));
+                    writer.newLine();
+                }
+                spilledCounter.increment();
+            } catch (IOException e) {
+                log.error("Could not spill {}, dropping it", persistentAuditEvent, e);
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Persist the events spilled to disk, including the ones left by a previous run.
+     * <p>
+     * The replay stops at the first batch that cannot be persisted, the events not persisted yet staying on disk for
+     * the next replay.
+     */
+    private void replaySpilledEvents() {
+        Path spillDirectory = Paths.get(properties.getSpillDirectory());
+        if (!Files.isDirectory(spillDirectory)) {
+            return;
+        }
+        Path current = spillDirectory.resolve(SPILL_FILE_PREFIX + "current" + SPILL_FILE_SUFFIX);
+        synchronized (spillLock) {
+            if (Files.exists(current)) {
+                try {
+                    Files.move(current, spillDirectory.resolve(SPILL_FILE_PREFIX + System.nanoTime() + SPILL_FILE_SUFFIX));
+                } catch (IOException e) {
+                    log.error("Could not rotate the audit event spill file {}", current, e);
+                    return;
+                }
+            }
+        }
+        List<Path> spillFiles;
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            spillFiles = files
+                .filter(file -> file.getFileName().toString().startsWith(SPILL_FILE_PREFIX))
+                .filter(file -> !file.equals(current))
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.error("Could not list the audit event spill directory {}", spillDirectory, e);
+            return;
+        }
+        for (Path spillFile : spillFiles) {
+            if (!replaySpillFile(spillFile)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return whether all the events of the spill file were persisted, and the file deleted.
+     */
+    private boolean replaySpillFile(Path spillFile) {
+        log.debug("Persisting the audit events spilled to {}", spillFile);
+        List<PersistentAuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        // The lines before this one are persisted, or skipped
+        long doneLines = 0;
+        long readLines = 0;
+        boolean persisted = true;
+        try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+            String line;
+            while (persisted && (line = reader.readLine()) != null) {
+                readLines++;
+                if (!line.isEmpty()) {
+                    try {
+                        batch.add(objectMapper.readValue(line, PersistentAuditEvent.class));
+                    } catch (JsonProcessingException e) {
+                        log.warn("Skipping an unreadable audit event of {}", spillFile, e);
+                        droppedCounter.increment();
+                    }
+                }
+                if (batch.size() == properties.getBatchSize()) {
+                    persisted = replay(batch, spillFile);
+                }
+                if (batch.isEmpty()) {
+                    doneLines = readLines;
+                }
+            }
+            if (persisted && !batch.isEmpty()) {
+                persisted = replay(batch, spillFile);
+            }
+        } catch (IOException e) {
+            log.error("Could not replay the audit event spill file {}", spillFile, e);
+            return false;
+        }
+        try {
+            if (persisted) {
+                Files.delete(spillFile);
+            } else if (doneLines > 0) {
+                removePersistedLines(spillFile, doneLines);
+            }
+        } catch (IOException e) {
+            log.error("Could not update the audit event spill file {}, its events may be persisted twice", spillFile, e);
+        }
+        return persisted;
+    }
+
+    /**
+     * @return whether the batch was persisted, it is cleared if it was.
+     */
+    private boolean replay(List<PersistentAuditEvent> batch, Path spillFile) {
+        try {
+            persist(batch);
+            batch.clear();
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not persist the audit events spilled to {}, keeping them for the next replay", spillFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * Rewrite a spill file without its first lines, through a file that is not replayed until it replaces it.
+     */
+    private static void removePersistedLines(Path spillFile, long doneLines) throws IOException {
+        Path remainder = spillFile.resolveSibling("remainder-" + spillFile.getFileName());
+        try (Stream<String> lines = Files.lines(spillFile, StandardCharsets.UTF_8)) {
+            Files.write(remainder, (Iterable<String>) lines.skip(doneLines)::iterator, StandardCharsets.UTF_8);
+        }
+        Files.move(remainder, spillFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
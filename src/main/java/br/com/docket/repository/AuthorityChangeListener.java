@@ -0,0 +1,30 @@
+package br.com.docket.repository;
+
+import br.com.docket.domain.Authority;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Entity listener publishing an {@link AuthorityChangedEvent} when an {@link Authority} is inserted, updated or deleted.
+ */
+@Component
+public class AuthorityChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AuthorityChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Authority authority) {
+        eventPublisher.publishEvent(new AuthorityChangedEvent(authority.getName()));
+    }
+}
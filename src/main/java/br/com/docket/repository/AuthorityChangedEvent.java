@@ -0,0 +1,24 @@
+package br.com.docket.repository;
+
+/**
+ * Event published when an authority is inserted, updated or deleted, before the transaction making the change commits.
+ */
+public class AuthorityChangedEvent {
+
+    private final String name;
+
+    public AuthorityChangedEvent(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthorityChangedEvent{" +
+            "name='" + name + '\'' +
+            "}";
+    }
+}
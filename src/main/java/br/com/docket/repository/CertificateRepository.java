@@ -2,13 +2,106 @@ package br.com.docket.repository;
 
 import br.com.docket.domain.Certificate;
 
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Spring Data  repository for the Certificate entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CertificateRepository extends JpaRepository<Certificate, Long> {
+public interface CertificateRepository extends JpaRepository<Certificate, Long>, JpaSpecificationExecutor<Certificate> {
+
+    /**
+     * Projection of a certificate name together with the id of the registry that issues it.
+     */
+    interface RegistryCertificateName {
+
+        Long getRegistryId();
+
+        String getName();
+    }
+
+    @Query("select certificate.registry.id as registryId, certificate.name as name from Certificate certificate " +
+        "where certificate.registry.id in :registryIds order by certificate.registry.id, certificate.name")
+    List<RegistryCertificateName> findNamesByRegistryIdIn(@Param("registryIds") Collection<Long> registryIds);
+
+    @Override
+    @EntityGraph(attributePaths = "registry")
+    Page<Certificate> findAll(Specification<Certificate> specification, Pageable pageable);
+
+    @EntityGraph(attributePaths = "registry")
+    @Query("select certificate from Certificate certificate where certificate.name is not null " +
+        "order by certificate.name, certificate.id")
+    List<Certificate> findFirstNamedPage(Pageable pageable);
+
+    @EntityGraph(attributePaths = "registry")
+    @Query("select certificate from Certificate certificate where certificate.name >= :name and (certificate.name > :name or certificate.id > :id) " +
+        "order by certificate.name, certificate.id")
+    List<Certificate> findNamedPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "registry")
+    @Query("select certificate from Certificate certificate where certificate.name is null and certificate.id > :id order by certificate.id")
+    List<Certificate> findUnnamedPageAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Projection of the columns of a certificate.
+     */
+    interface CertificateRow {
+
+        Long getId();
+
+        String getName();
+
+        Long getRegistryId();
+    }
+
+    @QueryHints(@QueryHint(name = QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select certificate.id as id, certificate.name as name, registry.id as registryId " +
+        "from Certificate certificate left join certificate.registry registry " +
+        "where certificate.changeSequence > :after and certificate.changeSequence <= :until " +
+        "order by certificate.changeSequence, certificate.id")
+    Stream<CertificateRow> streamAllByChangeSequenceBetween(@Param("after") long after, @Param("until") long until);
+
+    @Query("select coalesce(max(certificate.changeSequence), 0) from Certificate certificate " +
+        "where certificate.changeSequence > :since and certificate.lastModifiedDate <= :until")
+    long findMaxChangeSequenceAfter(@Param("since") long since, @Param("until") Instant until);
+
+    @EntityGraph(attributePaths = "registry")
+    @Query("select certificate from Certificate certificate where certificate.changeSequence > :since and certificate.lastModifiedDate <= :until " +
+        "order by certificate.changeSequence, certificate.id")
+    List<Certificate> findChangedAfter(@Param("since") long since, @Param("until") Instant until, Pageable pageable);
+
+    @EntityGraph(attributePaths = "registry")
+    List<Certificate> findAllByChangeSequence(Long changeSequence);
+
+    /**
+     * Projection of the version of a certificate together with the version of its registry.
+     */
+    interface CertificateVersion {
+
+        Long getVersion();
+
+        Long getRegistryVersion();
+    }
+
+    @Query("select certificate.version as version, registry.version as registryVersion " +
+        "from Certificate certificate left join certificate.registry registry where certificate.id = :id")
+    Optional<CertificateVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select certificate.changeSequence as changeSequence, certificate.lastModifiedDate as lastModifiedDate from Certificate certificate " +
+        "where certificate.changeSequence is not null order by certificate.changeSequence desc")
+    List<ChangeMark> findLatestChanges(Pageable pageable);
 }
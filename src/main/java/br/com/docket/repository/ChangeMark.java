@@ -0,0 +1,13 @@
+package br.com.docket.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection of the change sequence of an entity together with the date it was drawn.
+ */
+public interface ChangeMark {
+
+    Long getChangeSequence();
+
+    Instant getLastModifiedDate();
+}
@@ -0,0 +1,119 @@
+package br.com.docket.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Optional;
+import java.util.TimeZone;
+
+/**
+ * Repository for the change sequence and the tombstones of the deleted entities, listed by the change feed.
+ * <p>
+ * Dates are written and read in UTC, like {@code hibernate.jdbc.time_zone} does for the entities.
+ */
+@Repository
+public class ChangeRepository {
+
+    private static final String TOMBSTONE_COLUMNS = "entity_name, entity_id, change_sequence, deleted_date";
+
+    private static final RowMapper<Tombstone> TOMBSTONE_MAPPER = (resultSet, rowNum) -> new Tombstone(
+        resultSet.getString(1), resultSet.getLong(2), resultSet.getLong(3), resultSet.getTimestamp(4, utc()).toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the next value of the change sequence, shared by all the change tracked entities.
+     */
+    public long nextChangeSequence() {
+        return jdbcTemplate.queryForObject("select nextval('change_sequence')", Long.class);
+    }
+
+    public void insertTombstone(Tombstone tombstone) {
+        jdbcTemplate.update("insert into change_tombstone (" + TOMBSTONE_COLUMNS + ") values (?, ?, ?, ?)", statement -> {
+            statement.setString(1, tombstone.getEntityName());
+            statement.setLong(2, tombstone.getEntityId());
+            statement.setLong(3, tombstone.getChangeSequence());
+            statement.setTimestamp(4, Timestamp.from(tombstone.getDeletedDate()), utc());
+        });
+    }
+
+    /**
+     * @param since the change sequence the tombstones are after.
+     * @param until the latest deletion date of the tombstones.
+     * @param limit the maximum number of tombstones.
+     * @return the tombstones, by change sequence.
+     */
+    public List<Tombstone> findTombstonesAfter(long since, Instant until, int limit) {
+        return jdbcTemplate.query("select " + TOMBSTONE_COLUMNS + " from change_tombstone " +
+                "where change_sequence > ? and deleted_date <= ? order by change_sequence, entity_name, entity_id limit ?",
+            statement -> {
+                statement.setLong(1, since);
+                statement.setTimestamp(2, Timestamp.from(until), utc());
+                statement.setInt(3, limit);
+            }, TOMBSTONE_MAPPER);
+    }
+
+    /**
+     * @return the tombstone of the latest deletion, of any entity.
+     */
+    public Optional<Tombstone> findLatestTombstone() {
+        return jdbcTemplate.query("select " + TOMBSTONE_COLUMNS + " from change_tombstone " +
+            "order by change_sequence desc limit 1", TOMBSTONE_MAPPER).stream().findFirst();
+    }
+
+    public List<Tombstone> findTombstonesByChangeSequence(long changeSequence) {
+        return jdbcTemplate.query("select " + TOMBSTONE_COLUMNS + " from change_tombstone " +
+                "where change_sequence = ? order by entity_name, entity_id",
+            statement -> statement.setLong(1, changeSequence), TOMBSTONE_MAPPER);
+    }
+
+    private static Calendar utc() {
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+
+    /**
+     * What is left of a deleted entity.
+     */
+    public static final class Tombstone {
+
+        private final String entityName;
+
+        private final long entityId;
+
+        private final long changeSequence;
+
+        private final Instant deletedDate;
+
+        public Tombstone(String entityName, long entityId, long changeSequence, Instant deletedDate) {
+            this.entityName = entityName;
+            this.entityId = entityId;
+            this.changeSequence = changeSequence;
+            this.deletedDate = deletedDate;
+        }
+
+        public String getEntityName() {
+            return entityName;
+        }
+
+        public long getEntityId() {
+            return entityId;
+        }
+
+        public long getChangeSequence() {
+            return changeSequence;
+        }
+
+        public Instant getDeletedDate() {
+            return deletedDate;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.docket.repository;
+
+import br.com.docket.config.ApplicationProperties;
+import br.com.docket.domain.AbstractChangeTrackedEntity;
+import br.com.docket.repository.ChangeRepository.Tombstone;
+
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreRemove;
+import javax.persistence.PreUpdate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Entity listener stamping the change tracked entities with a change sequence when they are inserted or updated, and
+ * leaving a tombstone with one when they are deleted.
+ * <p>
+ * A transaction draws a single value from the change sequence, at its first change, shared by all the changes it makes:
+ * the change feed lists them together, and a bulk import does not go to the database for each row. The modification
+ * date is the date of that draw, so that the feed can tell which transactions may still be running.
+ * <p>
+ * A transaction committing more than {@code settle-ms} after that draw is logged: its changes may have been skipped by
+ * a client of the feed which read later changes meanwhile.
+ */
+@Component
+public class ChangeTrackingListener {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeTrackingListener.class);
+
+    private final ChangeRepository changeRepository;
+
+    private final ApplicationProperties.Changes properties;
+
+    public ChangeTrackingListener(ChangeRepository changeRepository, ApplicationProperties applicationProperties) {
+        this.changeRepository = changeRepository;
+        this.properties = applicationProperties.getChanges();
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void touch(AbstractChangeTrackedEntity entity) {
+        Change change = currentChange();
+        entity.setChangeSequence(change.sequence);
+        entity.setLastModifiedDate(change.date);
+    }
+
+    @PreRemove
+    public void remove(AbstractChangeTrackedEntity entity) {
+        if (entity.getId() == null) {
+            return;
+        }
+        Change change = currentChange();
+        String entityName = Hibernate.getClass(entity).getSimpleName().toLowerCase(Locale.ENGLISH);
+        changeRepository.insertTombstone(new Tombstone(entityName, entity.getId(), change.sequence, change.date));
+    }
+
+    private Change currentChange() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Change(changeRepository.nextChangeSequence(), Instant.now());
+        }
+        Change change = (Change) TransactionSynchronizationManager.getResource(this);
+        if (change == null) {
+            Change drawn = new Change(changeRepository.nextChangeSequence(), Instant.now());
+            TransactionSynchronizationManager.bindResource(this, drawn);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTrackingListener.this);
+                    if (status == STATUS_COMMITTED) {
+                        checkSettled(drawn);
+                    }
+                }
+            });
+            change = drawn;
+        }
+        return change;
+    }
+
+    private void checkSettled(Change change) {
+        long elapsedMs = Duration.between(change.date, Instant.now()).toMillis();
+        // Without a settle window, as in the tests, the feed makes no promise to check
+        if (properties.getSettleMs() > 0 && elapsedMs > properties.getSettleMs()) {
+            log.warn("The transaction of change sequence {} committed {} ms after its first change, more than the " +
+                "settle-ms of the change feed: clients may have skipped its changes", change.sequence, elapsedMs);
+        }
+    }
+
+    private static final class Change {
+
+        private final long sequence;
+
+        private final Instant date;
+
+        Change(long sequence, Instant date) {
+            this.sequence = sequence;
+            this.date = date;
+        }
+    }
+}
@@ -7,10 +7,9 @@ import br.com.docket.domain.PersistentAuditEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.*;
@@ -32,13 +31,30 @@ public class CustomAuditEventRepository implements AuditEventRepository {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final AuditEventWriter auditEventWriter;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    /**
+     * Create a repository saving the audit events in the transaction of the caller.
+     */
     public CustomAuditEventRepository(PersistenceAuditEventRepository persistenceAuditEventRepository,
             AuditEventConverter auditEventConverter) {
 
+        this(persistenceAuditEventRepository, auditEventConverter, null);
+    }
+
+    /**
+     * Create a repository handing the audit events over to the {@link AuditEventWriter}, which persists them in the
+     * background.
+     */
+    @Autowired
+    public CustomAuditEventRepository(PersistenceAuditEventRepository persistenceAuditEventRepository,
+            AuditEventConverter auditEventConverter, AuditEventWriter auditEventWriter) {
+
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
+        this.auditEventWriter = auditEventWriter;
     }
 
     @Override
@@ -49,7 +65,6 @@ public class CustomAuditEventRepository implements AuditEventRepository {
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void add(AuditEvent event) {
         if (!AUTHORIZATION_FAILURE.equals(event.getType()) &&
             !Constants.ANONYMOUS_USER.equals(event.getPrincipal())) {
@@ -60,7 +75,11 @@ public class CustomAuditEventRepository implements AuditEventRepository {
             persistentAuditEvent.setAuditEventDate(event.getTimestamp());
             Map<String, String> eventData = auditEventConverter.convertDataToStrings(event.getData());
             persistentAuditEvent.setData(truncate(eventData));
-            persistenceAuditEventRepository.save(persistentAuditEvent);
+            if (auditEventWriter != null) {
+                auditEventWriter.write(persistentAuditEvent);
+            } else {
+                persistenceAuditEventRepository.save(persistentAuditEvent);
+            }
         }
     }
 
@@ -4,8 +4,12 @@ import br.com.docket.domain.PersistentAuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,5 +23,18 @@ public interface PersistenceAuditEventRepository extends JpaRepository<Persisten
 
     Page<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
 
-    List<PersistentAuditEvent> findByAuditEventDateBefore(Instant before);
+    @Query("select persistentAuditEvent.id from PersistentAuditEvent persistentAuditEvent " +
+        "where persistentAuditEvent.auditEventDate < :before order by persistentAuditEvent.auditEventDate")
+    List<Long> findIdsByAuditEventDateBefore(@Param("before") Instant before, Pageable pageable);
+
+    /**
+     * Delete the data of the given audit events, to be done before deleting the events themselves.
+     */
+    @Modifying
+    @Query(value = "delete from jhi_persistent_audit_evt_data where event_id in (:ids)", nativeQuery = true)
+    int deleteDataByEventIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from PersistentAuditEvent persistentAuditEvent where persistentAuditEvent.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,14 +1,118 @@
 package br.com.docket.repository;
 
 import br.com.docket.domain.Registry;
+import br.com.docket.service.dto.RegistryListingDTO;
 
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
 /**
  * Spring Data  repository for the Registry entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface RegistryRepository extends JpaRepository<Registry, Long> {
+public interface RegistryRepository extends JpaRepository<Registry, Long>, JpaSpecificationExecutor<Registry> {
+
+    @Query(value = "select new br.com.docket.service.dto.RegistryListingDTO(registry.id, registry.name, registry.postalCode, " +
+        "registry.streetAddress, registry.neighborhood, registry.city, registry.state) from Registry registry",
+        countQuery = "select count(registry) from Registry registry")
+    Page<RegistryListingDTO> findAllListings(Pageable pageable);
+
+    /**
+     * Projection of a registry joined with the name of one of its certificates.
+     */
+    interface RegistryCertificateRow {
+
+        Long getId();
+
+        String getName();
+
+        String getPostalCode();
+
+        String getStreetAddress();
+
+        String getNeighborhood();
+
+        String getCity();
+
+        String getState();
+
+        String getCertificateName();
+    }
+
+    @QueryHints(@QueryHint(name = QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select registry.id as id, registry.name as name, registry.postalCode as postalCode, registry.streetAddress as streetAddress, " +
+        "registry.neighborhood as neighborhood, registry.city as city, registry.state as state, certificate.name as certificateName " +
+        "from Registry registry left join registry.certificates certificate order by registry.name, registry.id, certificate.name")
+    Stream<RegistryCertificateRow> streamAllWithCertificateNames();
+
+    @Query("select registry from Registry registry where registry.name is not null " +
+        "order by registry.name, registry.id")
+    List<Registry> findFirstNamedPage(Pageable pageable);
+
+    @Query("select registry from Registry registry where registry.name >= :name and (registry.name > :name or registry.id > :id) " +
+        "order by registry.name, registry.id")
+    List<Registry> findNamedPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("select registry from Registry registry where registry.name is null and registry.id > :id order by registry.id")
+    List<Registry> findUnnamedPageAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query("select registry.id from Registry registry where registry.id in :ids")
+    Set<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Projection of the columns of a registry.
+     */
+    interface RegistryRow {
+
+        Long getId();
+
+        String getName();
+
+        String getPostalCode();
+
+        String getStreetAddress();
+
+        String getNeighborhood();
+
+        String getCity();
+
+        String getState();
+    }
+
+    @QueryHints(@QueryHint(name = QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select registry.id as id, registry.name as name, registry.postalCode as postalCode, registry.streetAddress as streetAddress, " +
+        "registry.neighborhood as neighborhood, registry.city as city, registry.state as state " +
+        "from Registry registry where registry.changeSequence > :after and registry.changeSequence <= :until " +
+        "order by registry.changeSequence, registry.id")
+    Stream<RegistryRow> streamAllByChangeSequenceBetween(@Param("after") long after, @Param("until") long until);
+
+    @Query("select coalesce(max(registry.changeSequence), 0) from Registry registry " +
+        "where registry.changeSequence > :since and registry.lastModifiedDate <= :until")
+    long findMaxChangeSequenceAfter(@Param("since") long since, @Param("until") Instant until);
+
+    @Query("select registry from Registry registry where registry.changeSequence > :since and registry.lastModifiedDate <= :until " +
+        "order by registry.changeSequence, registry.id")
+    List<Registry> findChangedAfter(@Param("since") long since, @Param("until") Instant until, Pageable pageable);
+
+    List<Registry> findAllByChangeSequence(Long changeSequence);
+
+    @Query("select registry.version from Registry registry where registry.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select registry.changeSequence as changeSequence, registry.lastModifiedDate as lastModifiedDate from Registry registry " +
+        "where registry.changeSequence is not null order by registry.changeSequence desc")
+    List<ChangeMark> findLatestChanges(Pageable pageable);
 }
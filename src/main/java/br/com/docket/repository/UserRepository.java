@@ -7,8 +7,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.time.Instant;
@@ -42,4 +46,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByLoginNot(Pageable pageable, String login);
+
+    @Query("select user.id as id, user.login as login, user.email as email from User user " +
+        "where user.activated = false and user.activationKey is not null and user.createdDate < :dateTime order by user.id")
+    List<UserCacheKeys> findCacheKeysOfNotActivatedUsersCreatedBefore(@Param("dateTime") Instant dateTime, Pageable pageable);
+
+    /**
+     * Delete the authorities of the given users, to be done before deleting the users themselves.
+     */
+    @Modifying
+    @Query(value = "delete from jhi_user_authority where user_id in (:ids)", nativeQuery = true)
+    int deleteAuthoritiesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from User user where user.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The id of a user, with the keys of its entries in the user caches.
+     */
+    interface UserCacheKeys {
+
+        Long getId();
+
+        String getLogin();
+
+        String getEmail();
+    }
 }
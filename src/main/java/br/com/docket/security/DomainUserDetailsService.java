@@ -5,9 +5,12 @@ import br.com.docket.repository.UserRepository;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -17,17 +20,20 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * Authenticate a user from the database.
+ * Authenticate a user from the database, and store the new hash of their password when it is upgraded on login.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final CacheManager cacheManager;
+
+    public DomainUserDetailsService(UserRepository userRepository, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
     }
 
     @Override
@@ -48,6 +54,31 @@ public class DomainUserDetailsService implements UserDetailsService {
 
     }
 
+    /**
+     * Called by Spring Security after a successful login, when {@link PasswordHashingService#upgradeEncoding} reports
+     * that the password hash has a lower strength than the current one.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        log.debug("Upgrading the password hash of {}", userDetails.getUsername());
+        userRepository.findOneByLogin(userDetails.getUsername()).ifPresent(user -> {
+            user.setPassword(newPassword);
+            evict(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin());
+            evict(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail());
+        });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+            .password(newPassword)
+            .build();
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
     private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.getActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
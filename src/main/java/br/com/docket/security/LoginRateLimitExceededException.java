@@ -0,0 +1,25 @@
+package br.com.docket.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a login attempt is over the limits of the {@link LoginRateLimiter}.
+ */
+public class LoginRateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public LoginRateLimitExceededException(Duration retryAfter) {
+        super("Too many login attempts, retry in " + retryAfter.toMillis() + " ms");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return how long to wait before the next attempt is allowed.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,197 @@
+package br.com.docket.security;
+
+import br.com.docket.config.ApplicationProperties;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Limits the login attempts per login and per remote address, before any password is hashed.
+ * <p>
+ * Each key has a token bucket, stored as the single "theoretical arrival time" of the generic cell rate algorithm:
+ * the instant at which the bucket will be full again. An attempt takes a token by moving it {@code refill-period-ms}
+ * forward with a compare-and-set, and is rejected when that instant is more than {@code capacity - 1} periods away.
+ * <p>
+ * The buckets live in a fixed array of {@code slots} atomic longs per key type, so that attempts with random logins
+ * cannot grow the memory used; keys hashed to the same slot share its tokens. With {@code replicated}, they live in a
+ * Hazelcast map instead, shared by the whole cluster, each entry expiring once its bucket is full.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final String REPLICATED_MAP = "login-rate-limits";
+
+    private final Logger log = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private final ApplicationProperties.LoginRateLimit properties;
+
+    private final Clock clock;
+
+    private final Store loginStore;
+
+    private final Store addressStore;
+
+    private final Counter loginRejectedCounter;
+
+    private final Counter addressRejectedCounter;
+
+    @Autowired
+    public LoginRateLimiter(ApplicationProperties applicationProperties, ObjectProvider<HazelcastInstance> hazelcastInstance,
+            MeterRegistry meterRegistry) {
+        this(applicationProperties, hazelcastInstance.getIfAvailable(), meterRegistry, Clock.systemUTC());
+    }
+
+    LoginRateLimiter(ApplicationProperties applicationProperties, HazelcastInstance hazelcastInstance,
+            MeterRegistry meterRegistry, Clock clock) {
+
+        this.properties = applicationProperties.getLoginRateLimit();
+        this.clock = clock;
+        if (properties.isReplicated() && hazelcastInstance != null) {
+            IMap<String, Long> map = hazelcastInstance.getMap(REPLICATED_MAP);
+            this.loginStore = new ReplicatedStore(map, "login:");
+            this.addressStore = new ReplicatedStore(map, "address:");
+        } else {
+            if (properties.isReplicated()) {
+                log.warn("No Hazelcast instance with the local cache type, the login rate limits are not replicated");
+            }
+            this.loginStore = new StripedStore(properties.getSlots());
+            this.addressStore = new StripedStore(properties.getSlots());
+        }
+        this.loginRejectedCounter = Counter.builder("login.rate.limited")
+            .description("Number of login attempts rejected before checking the password")
+            .tag("key", "login")
+            .register(meterRegistry);
+        this.addressRejectedCounter = Counter.builder("login.rate.limited")
+            .description("Number of login attempts rejected before checking the password")
+            .tag("key", "address")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take a token from the bucket of the remote address, then from the bucket of the login.
+     *
+     * @param login the login or email the attempt is made for.
+     * @param remoteAddress the address the attempt comes from.
+     * @throws LoginRateLimitExceededException if either bucket is empty.
+     */
+    public void checkLoginAttempt(String login, String remoteAddress) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = clock.millis();
+        long addressWait = acquire(addressStore, remoteAddress, properties.getAddress(), now);
+        if (addressWait > 0) {
+            log.debug("Too many login attempts from {}", remoteAddress);
+            addressRejectedCounter.increment();
+            throw new LoginRateLimitExceededException(Duration.ofMillis(addressWait));
+        }
+        String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
+        long loginWait = acquire(loginStore, lowercaseLogin, properties.getLogin(), now);
+        if (loginWait > 0) {
+            log.debug("Too many login attempts for {}", lowercaseLogin);
+            loginRejectedCounter.increment();
+            throw new LoginRateLimitExceededException(Duration.ofMillis(loginWait));
+        }
+    }
+
+    /**
+     * @return 0 if a token was taken, or how long to wait for the next one in milliseconds.
+     */
+    private static long acquire(Store store, String key, ApplicationProperties.TokenBucket bucket, long now) {
+        long interval = bucket.getRefillPeriodMs();
+        long tolerance = interval * (bucket.getCapacity() - 1);
+        while (true) {
+            long arrival = store.get(key);
+            long start = Math.max(arrival, now);
+            long wait = start - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            long next = start + interval;
+            if (store.compareAndSet(key, arrival, next, next - now)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Theoretical arrival times by key, 0 standing for a full bucket.
+     */
+    private interface Store {
+
+        long get(String key);
+
+        boolean compareAndSet(String key, long expected, long update, long ttlMs);
+    }
+
+    private static final class StripedStore implements Store {
+
+        private final AtomicLongArray slots;
+
+        private final int mask;
+
+        StripedStore(int size) {
+            int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+            this.slots = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+        }
+
+        @Override
+        public long get(String key) {
+            return slots.get(index(key));
+        }
+
+        @Override
+        public boolean compareAndSet(String key, long expected, long update, long ttlMs) {
+            return slots.compareAndSet(index(key), expected, update);
+        }
+
+        private int index(String key) {
+            int hash = key.hashCode();
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+
+    private static final class ReplicatedStore implements Store {
+
+        private final IMap<String, Long> map;
+
+        private final String prefix;
+
+        ReplicatedStore(IMap<String, Long> map, String prefix) {
+            this.map = map;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public long get(String key) {
+            Long arrival = map.get(prefix + key);
+            return arrival == null ? 0 : arrival;
+        }
+
+        @Override
+        public boolean compareAndSet(String key, long expected, long update, long ttlMs) {
+            if (expected == 0) {
+                return map.putIfAbsent(prefix + key, update, ttlMs, TimeUnit.MILLISECONDS) == null;
+            }
+            if (!map.replace(prefix + key, expected, update)) {
+                return false;
+            }
+            map.setTtl(prefix + key, ttlMs, TimeUnit.MILLISECONDS);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package br.com.docket.security;
+
+import br.com.docket.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hashes and checks the passwords with BCrypt, on a dedicated thread pool.
+ * <p>
+ * BCrypt is CPU bound on purpose: run on the request threads, a burst of logins would hold all of them. Here at most
+ * {@code pool-size} hashes run at once and {@code queue-capacity} more wait for a thread, the next ones are rejected
+ * with an {@link AuthenticationServiceException}. The calling thread still waits for its own hash.
+ * <p>
+ * With {@code auto-tune}, the strength is the highest one hashing within {@code target-duration-ms} on this machine,
+ * measured at startup. {@link #upgradeEncoding(String)} reports the hashes of a lower strength, which Spring Security
+ * replaces on the next successful login through {@link DomainUserDetailsService#updatePassword}.
+ */
+public class PasswordHashingService implements PasswordEncoder {
+
+    private static final String BENCHMARK_PASSWORD = "benchmark-password";
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final int strength;
+
+    private final BCryptPasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer queueTimer;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Password properties = applicationProperties.getPassword();
+        this.strength = properties.isAutoTune() ? tuneStrength(properties) : properties.getStrength();
+        this.delegate = new BCryptPasswordEncoder(strength);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(),
+            0L, TimeUnit.MILLISECONDS,
+            properties.getQueueCapacity() > 0 ? new ArrayBlockingQueue<>(properties.getQueueCapacity()) : new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        Gauge.builder("password.hashing.strength", this, PasswordHashingService::getStrength)
+            .description("BCrypt strength of the new password hashes")
+            .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, pool -> pool.getQueue().size())
+            .description("Number of password hashes waiting for a thread")
+            .register(meterRegistry);
+        this.queueTimer = Timer.builder("password.hashing.queue")
+            .description("Time a password hash waits for a thread")
+            .register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing")
+            .description("Time taken to hash or check a password")
+            .tag("operation", "encode")
+            .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing")
+            .description("Time taken to hash or check a password")
+            .tag("operation", "matches")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+            .description("Number of password hashes rejected because the queue was full")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * @return the BCrypt strength of the new password hashes.
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T hash(Timer timer, Supplier<T> hashing) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(hashing);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new AuthenticationServiceException("Too many passwords are being hashed, try again later", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Find the highest strength between {@code min-strength} and {@code max-strength} hashing within
+     * {@code target-duration-ms}. Each strength takes twice as long as the previous one, so the search stops as soon as
+     * the next one would be too slow.
+     */
+    static int tuneStrength(ApplicationProperties.Password properties) {
+        // Warm up, the first hash also pays for class loading and the JIT
+        new BCryptPasswordEncoder(properties.getMinStrength()).encode(BENCHMARK_PASSWORD);
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(properties.getTargetDurationMs());
+        int tuned = properties.getMinStrength();
+        long tunedNanos = 0;
+        for (int candidate = properties.getMinStrength(); candidate <= properties.getMaxStrength(); candidate++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(candidate).encode(BENCHMARK_PASSWORD);
+            long durationNanos = System.nanoTime() - start;
+            if (durationNanos > targetNanos && candidate > properties.getMinStrength()) {
+                break;
+            }
+            tuned = candidate;
+            tunedNanos = durationNanos;
+            if (durationNanos * 2 > targetNanos) {
+                break;
+            }
+        }
+        log.info("Hashing passwords with a BCrypt strength of {}, taking {} ms (target {} ms)",
+            tuned, TimeUnit.NANOSECONDS.toMillis(tunedNanos), properties.getTargetDurationMs());
+        return tuned;
+    }
+}
@@ -3,6 +3,7 @@ package br.com.docket.security.jwt;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 
@@ -16,6 +17,10 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -28,14 +33,42 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final long VALIDATED_TOKENS_MAX_SIZE = 10000;
+
     private Key key;
 
+    private JwtParser jwtParser;
+
     private long tokenValidityInMilliseconds;
 
     private long tokenValidityInMillisecondsForRememberMe;
 
     private final JHipsterProperties jHipsterProperties;
 
+    /**
+     * Claims of the tokens already validated, each one kept until its expiration so that its signature is only verified
+     * once. The authentications are not cached: they are mutable, and each request gets its own.
+     */
+    private final Cache<String, ValidatedToken> validatedTokens = Caffeine.newBuilder()
+        .maximumSize(VALIDATED_TOKENS_MAX_SIZE)
+        .expireAfter(new Expiry<String, ValidatedToken>() {
+            @Override
+            public long expireAfterCreate(String token, ValidatedToken validatedToken, long currentTime) {
+                return validatedToken.remainingNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(String token, ValidatedToken validatedToken, long currentTime, long currentDuration) {
+                return validatedToken.remainingNanos();
+            }
+
+            @Override
+            public long expireAfterRead(String token, ValidatedToken validatedToken, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        })
+        .build();
+
     public TokenProvider(JHipsterProperties jHipsterProperties) {
         this.jHipsterProperties = jHipsterProperties;
     }
@@ -53,6 +86,7 @@ public class TokenProvider {
             keyBytes = Decoders.BASE64.decode(jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret());
         }
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
         this.tokenValidityInMilliseconds =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
@@ -82,25 +116,13 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-            .setSigningKey(key)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
-
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return toAuthentication(claims.getSubject(), toAuthorities(claims), token);
     }
 
     public boolean validateToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
+            jwtParser.parseClaimsJws(authToken);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.info("Invalid JWT token.");
@@ -108,4 +130,64 @@ public class TokenProvider {
         }
         return false;
     }
+
+    /**
+     * Validate a token and get its {@link Authentication}, with a single signature verification.
+     * <p>
+     * The claims are cached until the token expires, so requests repeating the same token skip
+     * both the signature verification and the parsing of the authorities, and only build a new authentication.
+     *
+     * @param authToken the JWT token.
+     * @return the authentication of the token, or {@link Optional#empty()} if the token is not valid.
+     */
+    public Optional<Authentication> authenticate(String authToken) {
+        ValidatedToken validatedToken = validatedTokens.getIfPresent(authToken);
+        if (validatedToken != null) {
+            return Optional.of(toAuthentication(validatedToken.subject, validatedToken.authorities, authToken));
+        }
+        try {
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            List<GrantedAuthority> authorities = toAuthorities(claims);
+            if (claims.getExpiration() != null) {
+                validatedTokens.put(authToken,
+                    new ValidatedToken(claims.getSubject(), authorities, claims.getExpiration().getTime()));
+            }
+            return Optional.of(toAuthentication(claims.getSubject(), authorities, authToken));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+        }
+        return Optional.empty();
+    }
+
+    private static List<GrantedAuthority> toAuthorities(Claims claims) {
+        return Collections.unmodifiableList(Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList()));
+    }
+
+    private static Authentication toAuthentication(String subject, List<GrantedAuthority> authorities, String token) {
+        User principal = new User(subject, "", authorities);
+
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    }
+
+    private static class ValidatedToken {
+
+        private final String subject;
+
+        private final List<GrantedAuthority> authorities;
+
+        private final long expiration;
+
+        ValidatedToken(String subject, List<GrantedAuthority> authorities, long expiration) {
+            this.subject = subject;
+            this.authorities = authorities;
+            this.expiration = expiration;
+        }
+
+        long remainingNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration - System.currentTimeMillis()));
+        }
+    }
 }
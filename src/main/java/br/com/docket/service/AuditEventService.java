@@ -1,19 +1,31 @@
 package br.com.docket.service;
 
 import io.github.jhipster.config.JHipsterProperties;
+import br.com.docket.config.ApplicationProperties;
 import br.com.docket.config.audit.AuditEventConverter;
+import br.com.docket.repository.AuditEventPartitionRepository;
 import br.com.docket.repository.PersistenceAuditEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -33,28 +45,95 @@ public class AuditEventService {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final AuditEventPartitionRepository auditEventPartitionRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter purgedCounter;
+
+    private final Timer purgeTimer;
+
+    private final Counter droppedPartitionsCounter;
+
     public AuditEventService(
         PersistenceAuditEventRepository persistenceAuditEventRepository,
-        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties) {
+        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties,
+        AuditEventPartitionRepository auditEventPartitionRepository, ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
         this.jHipsterProperties = jhipsterProperties;
+        this.auditEventPartitionRepository = auditEventPartitionRepository;
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purgedCounter = Counter.builder("audit.events.purged")
+            .description("Number of audit events removed after the retention period")
+            .register(meterRegistry);
+        this.purgeTimer = Timer.builder("audit.events.purge")
+            .description("Time taken to remove the audit events older than the retention period")
+            .register(meterRegistry);
+        this.droppedPartitionsCounter = Counter.builder("audit.events.partitions.dropped")
+            .description("Number of audit table partitions dropped after the retention period")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Create the audit event partitions needed until the next run of {@link #removeOldAuditEvents()}, when the audit
+     * tables are partitioned.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void createAuditEventPartitions() {
+        if (auditEventPartitionRepository.isPartitioned()) {
+            auditEventPartitionRepository.createPartitions(Instant.now());
+        }
     }
 
     /**
      * Old audit events should be automatically deleted after 30 days.
+     * <p>
+     * When the audit tables are partitioned, the partitions of the next periods are created and the expired ones
+     * are dropped, so expired events are kept until the end of their partition period.
+     * Otherwise they are deleted by id batches of {@code application.audit.purge.batch-size}, each one in a short
+     * transaction of its own, data first, without loading them.
      *
      * This is scheduled to get fired at 12:00 (am).
      */
     @Scheduled(cron = "0 0 12 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeOldAuditEvents() {
-        persistenceAuditEventRepository
-            .findByAuditEventDateBefore(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS))
-            .forEach(auditEvent -> {
-                log.debug("Deleting audit data {}", auditEvent);
-                persistenceAuditEventRepository.delete(auditEvent);
-            });
+        Instant before = Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS);
+        if (auditEventPartitionRepository.isPartitioned()) {
+            auditEventPartitionRepository.createPartitions(Instant.now());
+            int dropped = purgeTimer.record(() -> auditEventPartitionRepository.dropPartitionsBefore(before));
+            droppedPartitionsCounter.increment(dropped);
+            log.debug("Dropped {} audit partitions older than {}", dropped, before);
+            return;
+        }
+        Pageable batch = PageRequest.of(0, applicationProperties.getAudit().getPurge().getBatchSize());
+        long purged = purgeTimer.record(() -> {
+            long total = 0;
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> removeAuditEvents(before, batch));
+                total += deleted;
+            } while (deleted == batch.getPageSize());
+            return total;
+        });
+        purgedCounter.increment(purged);
+        log.debug("Deleted {} audit events older than {}", purged, before);
+    }
+
+    private int removeAuditEvents(Instant before, Pageable batch) {
+        List<Long> ids = persistenceAuditEventRepository.findIdsByAuditEventDateBefore(before, batch);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        persistenceAuditEventRepository.deleteDataByEventIdIn(ids);
+        return persistenceAuditEventRepository.deleteByIdIn(ids);
     }
 
     @Transactional(readOnly = true)
@@ -63,6 +142,10 @@ public class AuditEventService {
             .map(auditEventConverter::convertToAuditEvent);
     }
 
+    /**
+     * Get the audit events between two dates, only reading the partitions of that range when the audit tables are
+     * partitioned.
+     */
     @Transactional(readOnly = true)
     public Page<AuditEvent> findByDates(Instant fromDate, Instant toDate, Pageable pageable) {
         return persistenceAuditEventRepository.findAllByAuditEventDateBetween(fromDate, toDate, pageable)
@@ -0,0 +1,87 @@
+package br.com.docket.service;
+
+import br.com.docket.domain.Authority;
+import br.com.docket.repository.AuthorityChangedEvent;
+import br.com.docket.repository.AuthorityRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the names of the authorities in memory, as the {@code jhi_authority} table is tiny and almost never changes.
+ * <p>
+ * The names are loaded when the application is ready, or on first use, and reloaded once a transaction changing an
+ * {@link Authority} of this node commits. Authorities changed directly in the database are only seen after a restart.
+ */
+@Component
+public class AuthorityRegistry {
+
+    private final Logger log = LoggerFactory.getLogger(AuthorityRegistry.class);
+
+    private final AuthorityRepository authorityRepository;
+
+    private volatile Set<String> names;
+
+    public AuthorityRegistry(AuthorityRepository authorityRepository) {
+        this.authorityRepository = authorityRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        Set<String> loadedNames = authorityRepository.findAll(Sort.by("name")).stream()
+            .map(Authority::getName)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        log.debug("Loaded authorities {}", loadedNames);
+        // An empty table means Liquibase has not run yet, try again on next use
+        names = loadedNames.isEmpty() ? null : Collections.unmodifiableSet(loadedNames);
+    }
+
+    /**
+     * @return the names of all the authorities, sorted.
+     */
+    public List<String> getNames() {
+        return new ArrayList<>(names());
+    }
+
+    /**
+     * Get references to the authorities with the given names, ignoring the unknown ones, without querying them.
+     *
+     * @param authorityNames the names of the authorities.
+     * @return the references of the known authorities, to be assigned to a user.
+     */
+    public Set<Authority> getReferences(Collection<String> authorityNames) {
+        Set<String> knownNames = names();
+        return authorityNames.stream()
+            .filter(knownNames::contains)
+            .map(authorityRepository::getOne)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Drop the names once a transaction changing an authority commits, or at once outside of a transaction.
+     *
+     * @param event the change of an authority.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void invalidate(AuthorityChangedEvent event) {
+        log.debug("Authority {} changed, reloading the authorities on next use", event.getName());
+        names = null;
+    }
+
+    private Set<String> names() {
+        Set<String> currentNames = names;
+        if (currentNames == null) {
+            refresh();
+            currentNames = names;
+        }
+        return currentNames != null ? currentNames : Collections.emptySet();
+    }
+}
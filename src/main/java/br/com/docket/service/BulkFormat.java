@@ -0,0 +1,37 @@
+package br.com.docket.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+/**
+ * The formats of the bulk imports and exports: {@code ;} separated values with a header line, or a JSON object per
+ * line.
+ */
+public enum BulkFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(new MediaType("application", "x-ndjson"));
+
+    private final MediaType mediaType;
+
+    BulkFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @param contentType the content type of an imported file.
+     * @return the format of that content type.
+     * @throws IllegalArgumentException if no format has that content type.
+     */
+    public static BulkFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return Arrays.stream(values())
+            .filter(format -> format.mediaType.includes(mediaType))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unsupported content type " + contentType));
+    }
+}
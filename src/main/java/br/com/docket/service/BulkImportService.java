@@ -0,0 +1,554 @@
+package br.com.docket.service;
+
+import br.com.docket.config.ApplicationProperties;
+import br.com.docket.domain.Certificate;
+import br.com.docket.domain.Registry;
+import br.com.docket.repository.RegistryRepository;
+import br.com.docket.service.dto.ImportReportDTO;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Service importing registries and certificates in bulk, from CSV or NDJSON streams.
+ * <p>
+ * Rows are parsed one at a time as the stream is read, then inserted {@code chunk-size} at a time, one transaction per
+ * chunk. Hibernate sends the inserts of a chunk in JDBC batches of {@code hibernate.jdbc.batch_size}, and the
+ * persistence context is cleared after each chunk, so that the memory used does not depend on the size of the file.
+ * When a chunk fails, its rows are inserted one by one to find out which ones cannot be.
+ * <p>
+ * CSV files use the {@code ;} separated layout of the Liquibase fake data, starting with a header line of column names.
+ * NDJSON files have a JSON object per line, with the column names or the REST property names as fields. The {@code id}
+ * column is ignored, the ids are taken from the sequence.
+ */
+@Service
+public class BulkImportService {
+
+    private static final String ID_COLUMN = "id";
+
+    private static final List<String> REGISTRY_COLUMNS = Collections.unmodifiableList(Arrays.asList(
+        "name", "postal_code", "street_address", "neighborhood", "city", "state"));
+
+    private static final List<String> CERTIFICATE_COLUMNS = Collections.unmodifiableList(Arrays.asList(
+        "name", "registry_id"));
+
+    private static final Pattern CAMEL_CASE_BOUNDARY = Pattern.compile("([a-z0-9])([A-Z])");
+
+    private final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private final RegistryRepository registryRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.BulkImport properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public BulkImportService(RegistryRepository registryRepository, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, Validator validator, ObjectMapper objectMapper,
+            ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+
+        this.registryRepository = registryRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getBulkImport();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Import registries, with the {@code name}, {@code postal_code}, {@code street_address}, {@code neighborhood},
+     * {@code city} and {@code state} columns.
+     *
+     * @param input the file to import.
+     * @param format the format of the file.
+     * @return the report of the import.
+     * @throws IllegalArgumentException if the CSV header has an unknown column.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ImportReportDTO importRegistries(InputStream input, BulkFormat format) {
+        return importRows(input, format, new RegistryImport());
+    }
+
+    /**
+     * Import certificates, with the {@code name} and {@code registry_id} columns.
+     *
+     * @param input the file to import.
+     * @param format the format of the file.
+     * @return the report of the import.
+     * @throws IllegalArgumentException if the CSV header has an unknown column.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ImportReportDTO importCertificates(InputStream input, BulkFormat format) {
+        return importRows(input, format, new CertificateImport());
+    }
+
+    private <T> ImportReportDTO importRows(InputStream input, BulkFormat format, EntityImport<T> entityImport) {
+        log.debug("Request to import {} rows from {}", entityImport.entityName, format);
+        long start = System.nanoTime();
+        ImportReportDTO report = new ImportReportDTO();
+        try (RowReader reader = format == BulkFormat.CSV ?
+            new CsvRowReader(input, entityImport.columns) : new NdjsonRowReader(input, entityImport.columns)) {
+
+            List<ImportRow> chunk = new ArrayList<>(properties.getChunkSize());
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                report.setRowsRead(report.getRowsRead() + 1);
+                if (row.error != null) {
+                    fail(report, entityImport, row.line, row.error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == properties.getChunkSize()) {
+                    importChunk(chunk, entityImport, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, entityImport, report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long durationNanos = System.nanoTime() - start;
+        report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        report.setRowsPerSecond(durationNanos > 0 ? report.getRowsImported() * 1e9 / durationNanos : 0);
+        log.info("Imported {} of {} {} rows in {} ms, {} rows/s", report.getRowsImported(), report.getRowsRead(),
+            entityImport.entityName, report.getDurationMs(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private <T> void importChunk(List<ImportRow> rows, EntityImport<T> entityImport, ImportReportDTO report) {
+        entityImport.prepare(rows);
+        List<ImportRow> validRows = new ArrayList<>(rows.size());
+        try {
+            // Converted in the transaction of the chunk, which holds the references to other entities, and all of them
+            // before any is persisted, so that every valid row is retried when the chunk fails
+            persist(() -> {
+                List<T> entities = new ArrayList<>(rows.size());
+                for (ImportRow row : rows) {
+                    T entity = convert(row, entityImport, report);
+                    if (entity != null) {
+                        validRows.add(row);
+                        entities.add(entity);
+                    }
+                }
+                entities.forEach(entityManager::persist);
+            });
+            imported(report, entityImport, validRows.size());
+        } catch (RuntimeException e) {
+            log.debug("Could not import a chunk of {} {} rows, importing them one by one", validRows.size(),
+                entityImport.entityName, e);
+            for (ImportRow row : validRows) {
+                try {
+                    persist(() -> entityManager.persist(entityImport.convert(row)));
+                    imported(report, entityImport, 1);
+                } catch (RuntimeException rowException) {
+                    fail(report, entityImport, row.line, NestedExceptionUtils.getMostSpecificCause(rowException).getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert and validate a row.
+     *
+     * @return the entity, or {@code null} if the row is not valid or cannot be converted, which is reported.
+     */
+    private <T> T convert(ImportRow row, EntityImport<T> entityImport, ImportReportDTO report) {
+        T entity;
+        Set<ConstraintViolation<T>> violations;
+        try {
+            entity = entityImport.convert(row);
+            violations = validator.validate(entity);
+        } catch (IllegalArgumentException e) {
+            fail(report, entityImport, row.line, e.getMessage());
+            return null;
+        } catch (RuntimeException e) {
+            fail(report, entityImport, row.line, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            return null;
+        }
+        if (!violations.isEmpty()) {
+            fail(report, entityImport, row.line, violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.joining(", ")));
+            return null;
+        }
+        return entity;
+    }
+
+    /**
+     * Persist entities in a transaction of their own, flushing and clearing the persistence context before it commits.
+     */
+    private void persist(Runnable persistEntities) {
+        transactionTemplate.execute(status -> {
+            persistEntities.run();
+            entityManager.flush();
+            entityManager.clear();
+            return null;
+        });
+    }
+
+    private void imported(ImportReportDTO report, EntityImport<?> entityImport, int count) {
+        report.setRowsImported(report.getRowsImported() + count);
+        entityImport.importedCounter.increment(count);
+    }
+
+    private void fail(ImportReportDTO report, EntityImport<?> entityImport, long line, String message) {
+        report.setRowsFailed(report.getRowsFailed() + 1);
+        entityImport.failedCounter.increment();
+        if (report.getErrors().size() < properties.getMaxErrors()) {
+            report.getErrors().add(new ImportReportDTO.RowError(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * How the rows of an import are turned into entities, created for each import.
+     */
+    private abstract class EntityImport<T> {
+
+        private final String entityName;
+
+        private final List<String> columns;
+
+        private final Counter importedCounter;
+
+        private final Counter failedCounter;
+
+        EntityImport(String entityName, List<String> columns) {
+            this.entityName = entityName;
+            this.columns = columns;
+            this.importedCounter = Counter.builder("import.rows")
+                .description("Number of rows processed by the bulk imports")
+                .tag("entity", entityName)
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+            this.failedCounter = Counter.builder("import.rows")
+                .description("Number of rows processed by the bulk imports")
+                .tag("entity", entityName)
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        }
+
+        /**
+         * Look up, once per chunk, what the conversion of its rows needs.
+         */
+        void prepare(List<ImportRow> rows) {
+            // Nothing to look up by default
+        }
+
+        /**
+         * @throws IllegalArgumentException if the row cannot be converted.
+         */
+        abstract T convert(ImportRow row);
+    }
+
+    private final class RegistryImport extends EntityImport<Registry> {
+
+        RegistryImport() {
+            super("registry", REGISTRY_COLUMNS);
+        }
+
+        @Override
+        Registry convert(ImportRow row) {
+            return new Registry()
+                .name(row.get("name"))
+                .postalCode(row.get("postal_code"))
+                .streetAddress(row.get("street_address"))
+                .neighborhood(row.get("neighborhood"))
+                .city(row.get("city"))
+                .state(row.get("state"));
+        }
+    }
+
+    private final class CertificateImport extends EntityImport<Certificate> {
+
+        private Set<Long> registryIds = Collections.emptySet();
+
+        CertificateImport() {
+            super("certificate", CERTIFICATE_COLUMNS);
+        }
+
+        /**
+         * Check with a single query which registries of the chunk exist, so that certificates can reference them
+         * without loading them.
+         */
+        @Override
+        void prepare(List<ImportRow> rows) {
+            Set<Long> ids = new HashSet<>();
+            for (ImportRow row : rows) {
+                String registryId = row.get("registry_id");
+                if (registryId != null) {
+                    try {
+                        ids.add(Long.valueOf(registryId.trim()));
+                    } catch (NumberFormatException e) {
+                        // Reported by convert
+                    }
+                }
+            }
+            registryIds = ids.isEmpty() ? Collections.emptySet() : registryRepository.findIdsByIdIn(ids);
+        }
+
+        @Override
+        Certificate convert(ImportRow row) {
+            Certificate certificate = new Certificate().name(row.get("name"));
+            String registryId = row.get("registry_id");
+            if (registryId != null) {
+                Long id;
+                try {
+                    id = Long.valueOf(registryId.trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid registry_id " + registryId);
+                }
+                if (!registryIds.contains(id)) {
+                    throw new IllegalArgumentException("Unknown registry_id " + id);
+                }
+                certificate.setRegistry(entityManager.getReference(Registry.class, id));
+            }
+            return certificate;
+        }
+    }
+
+    /**
+     * A row read from the file, by column name, or the reason why it could not be read.
+     */
+    private static final class ImportRow {
+
+        private final long line;
+
+        private final Map<String, String> values;
+
+        private final String error;
+
+        private ImportRow(long line, Map<String, String> values, String error) {
+            this.line = line;
+            this.values = values;
+            this.error = error;
+        }
+
+        static ImportRow of(long line, Map<String, String> values) {
+            return new ImportRow(line, values, null);
+        }
+
+        static ImportRow error(long line, String error) {
+            return new ImportRow(line, Collections.emptyMap(), error);
+        }
+
+        String get(String column) {
+            return values.get(column);
+        }
+    }
+
+    private interface RowReader extends Closeable {
+
+        /**
+         * @return the next row, or {@code null} at the end of the file.
+         */
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * Reads {@code ;} separated rows, where fields may be quoted with {@code "}, quotes being doubled inside them.
+     */
+    private static final class CsvRowReader implements RowReader {
+
+        private static final char SEPARATOR = ';';
+
+        private static final char QUOTE = '"';
+
+        private final BufferedReader reader;
+
+        private final List<String> header;
+
+        private long lineNumber;
+
+        CsvRowReader(InputStream input, List<String> columns) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            String headerLine = reader.readLine();
+            lineNumber = 1;
+            if (headerLine == null) {
+                this.header = Collections.emptyList();
+                return;
+            }
+            if (headerLine.startsWith("\uFEFF")) {
+                headerLine = headerLine.substring(1);
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            parseLine(headerLine, fields, field, false);
+            fields.add(field.toString());
+            this.header = fields.stream().map(column -> column.trim().toLowerCase(Locale.ENGLISH)).collect(Collectors.toList());
+            for (String column : header) {
+                if (!ID_COLUMN.equals(column) && !columns.contains(column)) {
+                    throw new IllegalArgumentException("Unknown column " + column + ", expected some of " + columns);
+                }
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null) {
+                    return null;
+                }
+            } while (line.trim().isEmpty());
+            long start = lineNumber;
+            List<String> fields = new ArrayList<>(header.size());
+            StringBuilder field = new StringBuilder();
+            boolean quoted = parseLine(line, fields, field, false);
+            // A quoted field may span several lines
+            while (quoted) {
+                line = reader.readLine();
+                if (line == null) {
+                    return ImportRow.error(start, "Unterminated quoted field");
+                }
+                lineNumber++;
+                field.append('\n');
+                quoted = parseLine(line, fields, field, true);
+            }
+            fields.add(field.toString());
+            if (fields.size() != header.size()) {
+                return ImportRow.error(start, "Expected " + header.size() + " fields, found " + fields.size());
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i);
+                values.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            return ImportRow.of(start, values);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        /**
+         * Split a line into fields, the last one being left in {@code field}.
+         *
+         * @return {@code true} if the line ends inside a quoted field.
+         */
+        private static boolean parseLine(String line, List<String> fields, StringBuilder field, boolean quoted) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != QUOTE) {
+                        field.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                        field.append(QUOTE);
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == QUOTE && field.length() == 0) {
+                    quoted = true;
+                } else if (c == SEPARATOR) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            return quoted;
+        }
+    }
+
+    /**
+     * Reads a JSON object per line, with string, number or null fields.
+     */
+    private final class NdjsonRowReader implements RowReader {
+
+        private final BufferedReader reader;
+
+        private final List<String> columns;
+
+        private long lineNumber;
+
+        NdjsonRowReader(InputStream input, List<String> columns) {
+            this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            this.columns = columns;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null) {
+                    return null;
+                }
+            } while (line.trim().isEmpty());
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                return ImportRow.error(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return ImportRow.error(lineNumber, "Expected a JSON object");
+            }
+            Map<String, String> values = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String column = CAMEL_CASE_BOUNDARY.matcher(field.getKey()).replaceAll("$1_$2").toLowerCase(Locale.ENGLISH);
+                JsonNode value = field.getValue();
+                if ("registry".equals(column) && value.isObject()) {
+                    // The shape of the certificates of the REST API
+                    column = "registry_id";
+                    value = value.path(ID_COLUMN);
+                }
+                if (ID_COLUMN.equals(column)) {
+                    continue;
+                }
+                if (!columns.contains(column)) {
+                    return ImportRow.error(lineNumber, "Unknown field " + field.getKey() + ", expected some of " + columns);
+                }
+                if (!value.isValueNode() && !value.isMissingNode()) {
+                    return ImportRow.error(lineNumber, "Field " + field.getKey() + " must be a string, a number or null");
+                }
+                values.put(column, value.isNull() || value.isMissingNode() ? null : value.asText());
+            }
+            return ImportRow.of(lineNumber, values);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.docket.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.jhipster.service.QueryService;
+
+import br.com.docket.domain.Certificate;
+import br.com.docket.domain.*; // for static metamodels
+import br.com.docket.repository.CertificateRepository;
+import br.com.docket.service.dto.CertificateCriteria;
+import br.com.docket.service.dto.KeysetCursor;
+
+/**
+ * Service for executing complex queries for {@link Certificate} entities in the database.
+ * The main input is a {@link CertificateCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link Certificate} or a {@link Page} of {@link Certificate} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CertificateQueryService extends QueryService<Certificate> {
+
+    private final Logger log = LoggerFactory.getLogger(CertificateQueryService.class);
+
+    private final CertificateRepository certificateRepository;
+
+    public CertificateQueryService(CertificateRepository certificateRepository) {
+        this.certificateRepository = certificateRepository;
+    }
+
+    /**
+     * Return a {@link List} of {@link Certificate} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<Certificate> findByCriteria(CertificateCriteria criteria) {
+        log.debug("find by criteria : {}", criteria);
+        final Specification<Certificate> specification = createSpecification(criteria);
+        return certificateRepository.findAll(specification);
+    }
+
+    /**
+     * Return a {@link Page} of {@link Certificate} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Certificate> findByCriteria(CertificateCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<Certificate> specification = createSpecification(criteria);
+        return certificateRepository.findAll(specification, page);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(CertificateCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Certificate> specification = createSpecification(criteria);
+        return certificateRepository.count(specification);
+    }
+
+    /**
+     * Return the {@link Slice} of {@link Certificate} following the given cursor, ordered by name then id.
+     * <p>
+     * Every slice costs the same whatever its position, and no count query is run.
+     * @param after the cursor of the last entity of the previous slice, or {@code null} for the first slice.
+     * @param size the maximum number of entities to return.
+     * @return the following entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Certificate> findAllAfter(KeysetCursor after, int size) {
+        log.debug("find after : {}, size: {}", after, size);
+        return KeysetPagination.nextPage(after, size,
+            certificateRepository::findFirstNamedPage,
+            certificateRepository::findNamedPageAfter,
+            certificateRepository::findUnnamedPageAfter);
+    }
+
+    /**
+     * Function to convert {@link CertificateCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Certificate> createSpecification(CertificateCriteria criteria) {
+        Specification<Certificate> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Certificate_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Certificate_.name));
+            }
+            if (criteria.getRegistryId() != null) {
+                // Compare the foreign key column directly, no join on registry is needed
+                specification = specification.and(buildSpecification(criteria.getRegistryId(),
+                    root -> root.get(Certificate_.registry).get(Registry_.id)));
+            }
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,174 @@
+package br.com.docket.service;
+
+import br.com.docket.config.ApplicationProperties;
+import br.com.docket.domain.AbstractChangeTrackedEntity;
+import br.com.docket.repository.CertificateRepository;
+import br.com.docket.repository.ChangeMark;
+import br.com.docket.repository.ChangeRepository;
+import br.com.docket.repository.ChangeRepository.Tombstone;
+import br.com.docket.repository.RegistryRepository;
+import br.com.docket.service.dto.ChangeDTO;
+import br.com.docket.service.dto.ChangeFeedDTO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service listing the insertions, updates and deletions of registries and certificates, by change sequence.
+ * <p>
+ * A client keeps the watermark of the last page it read and asks for the changes after it, so the cost of a sync
+ * depends on the number of changes and not on the size of the tables. The changes of a transaction share their change
+ * sequence, so a page never ends in the middle of them.
+ * <p>
+ * Change sequences are drawn before their transaction commits, so a change may become visible after changes with a
+ * higher sequence. Changes are only listed once they are {@code settle-ms} old, so that the transactions that drew a
+ * lower sequence have committed meanwhile. This is a bound, not a guarantee: a watermark skips the changes of a
+ * transaction committing more than {@code settle-ms} after its first change, which is logged as a warning, or of a
+ * node whose clock is behind by more than that. Clients needing every change should re-read from an older watermark
+ * now and then.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ChangeFeedService {
+
+    private static final String REGISTRY = "registry";
+
+    private static final String CERTIFICATE = "certificate";
+
+    private static final Pageable LATEST = PageRequest.of(0, 1);
+
+    private static final Comparator<ChangeDTO> CHANGE_ORDER = Comparator.comparingLong(ChangeDTO::getChangeSequence)
+        .thenComparing(ChangeDTO::getEntity)
+        .thenComparing(ChangeDTO::getId);
+
+    private final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final RegistryRepository registryRepository;
+
+    private final CertificateRepository certificateRepository;
+
+    private final ChangeRepository changeRepository;
+
+    private final ApplicationProperties.Changes properties;
+
+    public ChangeFeedService(RegistryRepository registryRepository, CertificateRepository certificateRepository,
+            ChangeRepository changeRepository, ApplicationProperties applicationProperties) {
+        this.registryRepository = registryRepository;
+        this.certificateRepository = certificateRepository;
+        this.changeRepository = changeRepository;
+        this.properties = applicationProperties.getChanges();
+    }
+
+    /**
+     * Get the changes after a watermark.
+     *
+     * @param since the watermark of the previous page, 0 for all the entities.
+     * @param size the number of changes of the page, exceeded when a single transaction made more changes.
+     * @return the page of changes.
+     */
+    public ChangeFeedDTO findChangesAfter(long since, int size) {
+        log.debug("Request to get {} changes after {}", size, since);
+        Instant until = Instant.now().minusMillis(properties.getSettleMs());
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ChangeDTO> changes = new ArrayList<>();
+        registryRepository.findChangedAfter(since, until, limit).forEach(registry -> changes.add(change(REGISTRY, registry)));
+        certificateRepository.findChangedAfter(since, until, limit).forEach(certificate -> changes.add(change(CERTIFICATE, certificate)));
+        changeRepository.findTombstonesAfter(since, until, size + 1).forEach(tombstone -> changes.add(change(tombstone)));
+        changes.sort(CHANGE_ORDER);
+
+        ChangeFeedDTO feed = new ChangeFeedDTO();
+        if (changes.size() <= size) {
+            feed.setChanges(changes);
+            feed.setWatermark(changes.isEmpty() ? since : changes.get(changes.size() - 1).getChangeSequence());
+            return feed;
+        }
+        long boundary = changes.get(size).getChangeSequence();
+        List<ChangeDTO> page = changes.stream()
+            .filter(change -> change.getChangeSequence() < boundary)
+            .collect(Collectors.toList());
+        if (page.isEmpty()) {
+            // A single transaction made more than size changes, they are listed together
+            page = findChangesOf(boundary);
+        }
+        feed.setChanges(page);
+        feed.setWatermark(page.get(page.size() - 1).getChangeSequence());
+        feed.setHasMore(true);
+        return feed;
+    }
+
+    /**
+     * Get the change sequence of the latest change of the registries, inserted, updated or deleted, to tell whether
+     * a list of registries may have changed.
+     *
+     * @return the change sequence, or empty if the latest change is not {@code settle-ms} old yet.
+     */
+    public OptionalLong findLatestRegistryChange() {
+        return settled(registryRepository.findLatestChanges(LATEST));
+    }
+
+    /**
+     * Get the change sequence of the latest change of the certificates and of the registries they hold, inserted,
+     * updated or deleted, to tell whether a list of certificates may have changed.
+     *
+     * @return the change sequence, or empty if the latest change is not {@code settle-ms} old yet.
+     */
+    public OptionalLong findLatestCertificateChange() {
+        List<ChangeMark> marks = new ArrayList<>(certificateRepository.findLatestChanges(LATEST));
+        marks.addAll(registryRepository.findLatestChanges(LATEST));
+        return settled(marks);
+    }
+
+    /**
+     * The latest of the changes and of the deletions, if every transaction that drew a lower change sequence has
+     * committed.
+     */
+    private OptionalLong settled(List<ChangeMark> marks) {
+        long latest = 0;
+        Instant latestDate = null;
+        for (ChangeMark mark : marks) {
+            if (mark.getChangeSequence() > latest) {
+                latest = mark.getChangeSequence();
+                latestDate = mark.getLastModifiedDate();
+            }
+        }
+        Optional<Tombstone> tombstone = changeRepository.findLatestTombstone();
+        if (tombstone.isPresent() && tombstone.get().getChangeSequence() > latest) {
+            latest = tombstone.get().getChangeSequence();
+            latestDate = tombstone.get().getDeletedDate();
+        }
+        if (latestDate != null && latestDate.isAfter(Instant.now().minusMillis(properties.getSettleMs()))) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(latest);
+    }
+
+    private List<ChangeDTO> findChangesOf(long changeSequence) {
+        List<ChangeDTO> changes = new ArrayList<>();
+        registryRepository.findAllByChangeSequence(changeSequence).forEach(registry -> changes.add(change(REGISTRY, registry)));
+        certificateRepository.findAllByChangeSequence(changeSequence).forEach(certificate -> changes.add(change(CERTIFICATE, certificate)));
+        changeRepository.findTombstonesByChangeSequence(changeSequence).forEach(tombstone -> changes.add(change(tombstone)));
+        changes.sort(CHANGE_ORDER);
+        return changes;
+    }
+
+    private static ChangeDTO change(String entity, AbstractChangeTrackedEntity data) {
+        return new ChangeDTO(entity, data.getId(), data.getChangeSequence(), data.getLastModifiedDate(), false, data);
+    }
+
+    private static ChangeDTO change(Tombstone tombstone) {
+        return new ChangeDTO(tombstone.getEntityName(), tombstone.getEntityId(), tombstone.getChangeSequence(),
+            tombstone.getDeletedDate(), true, null);
+    }
+}
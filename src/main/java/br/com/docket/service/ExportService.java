@@ -0,0 +1,235 @@
+package br.com.docket.service;
+
+import br.com.docket.config.ApplicationProperties;
+import br.com.docket.repository.CertificateRepository;
+import br.com.docket.repository.CertificateRepository.CertificateRow;
+import br.com.docket.repository.RegistryRepository;
+import br.com.docket.repository.RegistryRepository.RegistryRow;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Service exporting registries and certificates in the formats read by the {@link BulkImportService}.
+ * <p>
+ * Rows are read as projections through a forward-only cursor inside a read-only transaction, and written as they are
+ * read, so the memory used does not depend on the number of rows.
+ * <p>
+ * An export is bounded by a watermark, a change sequence of the {@link ChangeFeedService}: passing it as {@code since}
+ * to the next export only returns the rows inserted or updated in between, deletions being listed by the change feed.
+ * Like the change feed, the watermark only covers the changes that are {@code settle-ms} old, so that the transactions
+ * that drew a lower change sequence have committed.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private static final String[] REGISTRY_COLUMNS = {"id", "name", "postal_code", "street_address", "neighborhood", "city", "state"};
+
+    private static final String[] CERTIFICATE_COLUMNS = {"id", "name", "registry_id"};
+
+    private static final Pattern SNAKE_CASE_BOUNDARY = Pattern.compile("_([a-z])");
+
+    private final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final RegistryRepository registryRepository;
+
+    private final CertificateRepository certificateRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Changes changeProperties;
+
+    public ExportService(RegistryRepository registryRepository, CertificateRepository certificateRepository,
+            ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.registryRepository = registryRepository;
+        this.certificateRepository = certificateRepository;
+        this.objectMapper = objectMapper;
+        this.changeProperties = applicationProperties.getChanges();
+    }
+
+    /**
+     * Only the changes after {@code since} are read, through the change sequence index, so that an incremental export
+     * with nothing new does not scan the table.
+     *
+     * @param since the watermark of the previous export, 0 for all the registries.
+     * @return the watermark of an export of the registries starting now.
+     */
+    public long getRegistriesWatermark(long since) {
+        return Math.max(since, registryRepository.findMaxChangeSequenceAfter(since, settledUntil()));
+    }
+
+    /**
+     * @param since the watermark of the previous export, 0 for all the certificates.
+     * @return the watermark of an export of the certificates starting now.
+     */
+    public long getCertificatesWatermark(long since) {
+        return Math.max(since, certificateRepository.findMaxChangeSequenceAfter(since, settledUntil()));
+    }
+
+    private Instant settledUntil() {
+        return Instant.now().minusMillis(changeProperties.getSettleMs());
+    }
+
+    /**
+     * Write the registries changed after {@code since} and up to {@code watermark}, by change sequence.
+     *
+     * @param since the watermark of the previous export, 0 for all the registries.
+     * @param watermark the watermark of this export.
+     * @param format the format to write.
+     * @param output the output, left open.
+     * @return the number of registries written.
+     * @throws IOException if the output cannot be written.
+     */
+    public long exportRegistries(long since, long watermark, BulkFormat format, OutputStream output) throws IOException {
+        log.debug("Request to export Registries since {} up to {}", since, watermark);
+        RowWriter writer = rowWriter(format, output, REGISTRY_COLUMNS);
+        long count = 0;
+        try (Stream<RegistryRow> rows = registryRepository.streamAllByChangeSequenceBetween(since, watermark)) {
+            Iterator<RegistryRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                RegistryRow row = iterator.next();
+                writer.write(row.getId(), row.getName(), row.getPostalCode(), row.getStreetAddress(),
+                    row.getNeighborhood(), row.getCity(), row.getState());
+                count++;
+            }
+        }
+        writer.finish();
+        return count;
+    }
+
+    /**
+     * Write the certificates changed after {@code since} and up to {@code watermark}, by change sequence.
+     *
+     * @param since the watermark of the previous export, 0 for all the certificates.
+     * @param watermark the watermark of this export.
+     * @param format the format to write.
+     * @param output the output, left open.
+     * @return the number of certificates written.
+     * @throws IOException if the output cannot be written.
+     */
+    public long exportCertificates(long since, long watermark, BulkFormat format, OutputStream output) throws IOException {
+        log.debug("Request to export Certificates since {} up to {}", since, watermark);
+        RowWriter writer = rowWriter(format, output, CERTIFICATE_COLUMNS);
+        long count = 0;
+        try (Stream<CertificateRow> rows = certificateRepository.streamAllByChangeSequenceBetween(since, watermark)) {
+            Iterator<CertificateRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                CertificateRow row = iterator.next();
+                writer.write(row.getId(), row.getName(), row.getRegistryId());
+                count++;
+            }
+        }
+        writer.finish();
+        return count;
+    }
+
+    private RowWriter rowWriter(BulkFormat format, OutputStream output, String[] columns) throws IOException {
+        return format == BulkFormat.CSV ? new CsvRowWriter(output, columns) : new NdjsonRowWriter(output, columns);
+    }
+
+    private interface RowWriter {
+
+        void write(Object... values) throws IOException;
+
+        /**
+         * Write what is still buffered, without closing the output.
+         */
+        void finish() throws IOException;
+    }
+
+    /**
+     * Writes a header line of column names then {@code ;} separated values, quoted with {@code "} when they contain a
+     * separator, a quote or a line break.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream output, String[] columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            write((Object[]) columns);
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(';');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(';') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes a JSON object per line, with the REST property names of the columns.
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private final String[] fields;
+
+        NdjsonRowWriter(OutputStream output, String[] columns) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+            this.generator.setRootValueSeparator(null);
+            this.fields = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                Matcher matcher = SNAKE_CASE_BOUNDARY.matcher(columns[i]);
+                StringBuffer field = new StringBuffer();
+                while (matcher.find()) {
+                    matcher.appendReplacement(field, matcher.group(1).toUpperCase(Locale.ENGLISH));
+                }
+                fields[i] = matcher.appendTail(field).toString();
+            }
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeObjectField(fields[i], values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
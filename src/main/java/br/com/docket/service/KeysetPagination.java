@@ -0,0 +1,58 @@
+package br.com.docket.service;
+
+import br.com.docket.service.dto.KeysetCursor;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) pagination over rows ordered by {@code (sortKey, id)}, rows without a sort key coming last.
+ * <p>
+ * Each page is read with an index range scan starting right after the cursor and limited to one row more
+ * than requested, to know whether a next page exists: no offset is skipped and no count query is run.
+ * The {@code (sortKey, id) > (?, ?)} predicate is written {@code sortKey >= ? and (sortKey > ? or id > ?)},
+ * so that the leading range condition can drive the {@code (sortKey, id)} index.
+ */
+final class KeysetPagination {
+
+    /**
+     * Query reading the rows strictly after a {@code (sortKey, id)} position.
+     */
+    @FunctionalInterface
+    interface SortedPageAfter<T> {
+
+        List<T> find(String sortKey, Long id, Pageable pageable);
+    }
+
+    private KeysetPagination() {
+    }
+
+    static <T> Slice<T> nextPage(KeysetCursor after, int size,
+                                 Function<Pageable, List<T>> firstSortedPage,
+                                 SortedPageAfter<T> sortedPageAfter,
+                                 BiFunction<Long, Pageable, List<T>> unsortedPageAfter) {
+        List<T> content = new ArrayList<>(size + 1);
+        if (after == null) {
+            content.addAll(firstSortedPage.apply(PageRequest.of(0, size + 1)));
+        } else if (after.getSortKey() != null) {
+            content.addAll(sortedPageAfter.find(after.getSortKey(), after.getId(), PageRequest.of(0, size + 1)));
+        }
+        if (content.size() <= size) {
+            // The rows with a sort key are exhausted, continue with the ones without it
+            Long lastId = after != null && after.getSortKey() == null ? after.getId() : Long.MIN_VALUE;
+            content.addAll(unsortedPageAfter.apply(lastId, PageRequest.of(0, size + 1 - content.size())));
+        }
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.docket.service;
+
+import br.com.docket.domain.AbstractChangeTrackedEntity;
+import br.com.docket.domain.Certificate;
+import br.com.docket.domain.Registry;
+import br.com.docket.repository.RegistryRepository;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Service applying JSON merge patches (RFC 7396) to registries and certificates.
+ * <p>
+ * The patch is applied to the managed entity, so that only the fields it changes are dirty: the entities are updated
+ * with {@code @DynamicUpdate}, and the update only writes their columns. The {@code id} and {@code version} of a patch
+ * are not applied, they must be those of the entity.
+ */
+@Service
+@Transactional
+public class MergePatchService {
+
+    private static final String ID = "id";
+
+    private static final String VERSION = "version";
+
+    private static final String REGISTRY = "registry";
+
+    private static final Set<String> REGISTRY_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "name", "postalCode", "streetAddress", "neighborhood", "city", "state")));
+
+    private static final Set<String> CERTIFICATE_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "name", REGISTRY)));
+
+    private final Logger log = LoggerFactory.getLogger(MergePatchService.class);
+
+    private final RegistryRepository registryRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public MergePatchService(RegistryRepository registryRepository, ObjectMapper objectMapper) {
+        this.registryRepository = registryRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Apply a merge patch to a registry.
+     *
+     * @param registry the managed registry to patch.
+     * @param patch the merge patch.
+     * @return the patched registry.
+     * @throws IllegalArgumentException if the patch is not an object, or has a field that cannot be patched.
+     * @throws ObjectOptimisticLockingFailureException if the patch has a version that is not the registry's.
+     */
+    public Registry patchRegistry(Registry registry, JsonNode patch) {
+        log.debug("Request to patch Registry {} : {}", registry.getId(), patch);
+        return apply(registry, fields(registry, patch, REGISTRY_FIELDS));
+    }
+
+    /**
+     * Apply a merge patch to a certificate.
+     * <p>
+     * The registry of the certificate is a reference: it is replaced by the registry with the {@code id} of the patch,
+     * or removed by a {@code null}, and never patched itself.
+     *
+     * @param certificate the managed certificate to patch.
+     * @param patch the merge patch.
+     * @return the patched certificate.
+     * @throws IllegalArgumentException if the patch is not an object, has a field that cannot be patched, or an unknown registry.
+     * @throws ObjectOptimisticLockingFailureException if the patch has a version that is not the certificate's.
+     */
+    public Certificate patchCertificate(Certificate certificate, JsonNode patch) {
+        log.debug("Request to patch Certificate {} : {}", certificate.getId(), patch);
+        ObjectNode fields = fields(certificate, patch, CERTIFICATE_FIELDS);
+        JsonNode registry = fields.remove(REGISTRY);
+        if (registry != null && registry.isNull()) {
+            certificate.setRegistry(null);
+        } else if (registry != null) {
+            if (!registry.path(ID).canConvertToLong()) {
+                throw new IllegalArgumentException("The registry must have an id");
+            }
+            long registryId = registry.path(ID).asLong();
+            certificate.setRegistry(registryRepository.findById(registryId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown registry " + registryId)));
+        }
+        return apply(certificate, fields);
+    }
+
+    /**
+     * Check the fields of a patch.
+     *
+     * @return the fields of the patch to apply.
+     */
+    private static ObjectNode fields(AbstractChangeTrackedEntity entity, JsonNode patch, Set<String> patchable) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        ObjectNode fields = ((ObjectNode) patch).deepCopy();
+        for (Iterator<String> names = patch.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            JsonNode value = patch.get(name);
+            if (ID.equals(name)) {
+                if (!value.canConvertToLong() || value.asLong() != entity.getId()) {
+                    throw new IllegalArgumentException("The id cannot be changed");
+                }
+                fields.remove(ID);
+            } else if (VERSION.equals(name)) {
+                if (!value.isNull() && (!value.canConvertToLong() || value.asLong() != entity.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Hibernate.getClass(entity), entity.getId());
+                }
+                fields.remove(VERSION);
+            } else if (!patchable.contains(name)) {
+                throw new IllegalArgumentException("The field " + name + " cannot be patched");
+            }
+        }
+        return fields;
+    }
+
+    private <T> T apply(T entity, ObjectNode fields) {
+        try {
+            return objectMapper.readerForUpdating(entity)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(fields);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid merge patch", e);
+        }
+    }
+}
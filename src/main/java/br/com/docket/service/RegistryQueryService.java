@@ -0,0 +1,132 @@
+package br.com.docket.service;
+
+import java.util.List;
+
+import javax.persistence.criteria.JoinType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.jhipster.service.QueryService;
+
+import br.com.docket.domain.Registry;
+import br.com.docket.domain.*; // for static metamodels
+import br.com.docket.repository.RegistryRepository;
+import br.com.docket.service.dto.RegistryCriteria;
+import br.com.docket.service.dto.KeysetCursor;
+
+/**
+ * Service for executing complex queries for {@link Registry} entities in the database.
+ * The main input is a {@link RegistryCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link Registry} or a {@link Page} of {@link Registry} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RegistryQueryService extends QueryService<Registry> {
+
+    private final Logger log = LoggerFactory.getLogger(RegistryQueryService.class);
+
+    private final RegistryRepository registryRepository;
+
+    public RegistryQueryService(RegistryRepository registryRepository) {
+        this.registryRepository = registryRepository;
+    }
+
+    /**
+     * Return a {@link List} of {@link Registry} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<Registry> findByCriteria(RegistryCriteria criteria) {
+        log.debug("find by criteria : {}", criteria);
+        final Specification<Registry> specification = createSpecification(criteria);
+        return registryRepository.findAll(specification);
+    }
+
+    /**
+     * Return a {@link Page} of {@link Registry} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Registry> findByCriteria(RegistryCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<Registry> specification = createSpecification(criteria);
+        return registryRepository.findAll(specification, page);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(RegistryCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Registry> specification = createSpecification(criteria);
+        return registryRepository.count(specification);
+    }
+
+    /**
+     * Return the {@link Slice} of {@link Registry} following the given cursor, ordered by name then id.
+     * <p>
+     * Every slice costs the same whatever its position, and no count query is run.
+     * @param after the cursor of the last entity of the previous slice, or {@code null} for the first slice.
+     * @param size the maximum number of entities to return.
+     * @return the following entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Registry> findAllAfter(KeysetCursor after, int size) {
+        log.debug("find after : {}, size: {}", after, size);
+        return KeysetPagination.nextPage(after, size,
+            registryRepository::findFirstNamedPage,
+            registryRepository::findNamedPageAfter,
+            registryRepository::findUnnamedPageAfter);
+    }
+
+    /**
+     * Function to convert {@link RegistryCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Registry> createSpecification(RegistryCriteria criteria) {
+        Specification<Registry> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Registry_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Registry_.name));
+            }
+            if (criteria.getPostalCode() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getPostalCode(), Registry_.postalCode));
+            }
+            if (criteria.getStreetAddress() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getStreetAddress(), Registry_.streetAddress));
+            }
+            if (criteria.getNeighborhood() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getNeighborhood(), Registry_.neighborhood));
+            }
+            if (criteria.getCity() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getCity(), Registry_.city));
+            }
+            if (criteria.getState() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getState(), Registry_.state));
+            }
+            if (criteria.getCertificateId() != null) {
+                specification = specification.and(buildSpecification(criteria.getCertificateId(),
+                    root -> root.join(Registry_.certificates, JoinType.LEFT).get(Certificate_.id)));
+            }
+        }
+        return specification;
+    }
+}
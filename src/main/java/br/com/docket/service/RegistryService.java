@@ -0,0 +1,113 @@
+package br.com.docket.service;
+
+import br.com.docket.repository.CertificateRepository;
+import br.com.docket.repository.RegistryRepository;
+import br.com.docket.repository.RegistryRepository.RegistryCertificateRow;
+import br.com.docket.service.dto.RegistryListingDTO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service class for listing registries.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RegistryService {
+
+    private final Logger log = LoggerFactory.getLogger(RegistryService.class);
+
+    private final RegistryRepository registryRepository;
+
+    private final CertificateRepository certificateRepository;
+
+    public RegistryService(RegistryRepository registryRepository, CertificateRepository certificateRepository) {
+        this.registryRepository = registryRepository;
+        this.certificateRepository = certificateRepository;
+    }
+
+    /**
+     * Get one page of registries, each one with the names of its certificates already grouped.
+     * <p>
+     * Certificate names for the whole page are loaded with a single projection query, so the
+     * number of queries does not depend on the page size nor on the number of certificates.
+     *
+     * @param pageable the pagination information.
+     * @return the page of registry listings.
+     */
+    public Page<RegistryListingDTO> findAllListings(Pageable pageable) {
+        log.debug("Request to get a page of Registry listings : {}", pageable);
+        Page<RegistryListingDTO> page = registryRepository.findAllListings(pageable);
+        if (page.hasContent()) {
+            Map<Long, RegistryListingDTO> listingsById = page.getContent().stream()
+                .collect(Collectors.toMap(RegistryListingDTO::getId, Function.identity()));
+            certificateRepository.findNamesByRegistryIdIn(listingsById.keySet())
+                .forEach(certificate -> listingsById.get(certificate.getRegistryId()).getCertificateNames().add(certificate.getName()));
+        }
+        return page;
+    }
+
+    /**
+     * Stream all the registries, each one with the names of its certificates, to the given action.
+     * <p>
+     * Rows are read through a forward-only cursor inside a read-only transaction and grouped
+     * lazily, so only one registry is held in memory at a time. The iterator is only valid
+     * while the action runs.
+     *
+     * @param action the action consuming the registry listings.
+     */
+    public void streamAllListings(Consumer<Iterator<RegistryListingDTO>> action) {
+        log.debug("Request to stream all Registry listings");
+        try (Stream<RegistryCertificateRow> rows = registryRepository.streamAllWithCertificateNames()) {
+            action.accept(new RegistryListingIterator(rows.iterator()));
+        }
+    }
+
+    /**
+     * Groups consecutive registry/certificate rows, ordered by registry, into registry listings.
+     */
+    private static class RegistryListingIterator implements Iterator<RegistryListingDTO> {
+
+        private final Iterator<RegistryCertificateRow> rows;
+
+        private RegistryCertificateRow next;
+
+        RegistryListingIterator(Iterator<RegistryCertificateRow> rows) {
+            this.rows = rows;
+            this.next = rows.hasNext() ? rows.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public RegistryListingDTO next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            RegistryListingDTO listing = new RegistryListingDTO(next.getId(), next.getName(), next.getPostalCode(),
+                next.getStreetAddress(), next.getNeighborhood(), next.getCity(), next.getState());
+            while (next != null && next.getId().equals(listing.getId())) {
+                if (next.getCertificateName() != null) {
+                    listing.getCertificateNames().add(next.getCertificateName());
+                }
+                next = rows.hasNext() ? rows.next() : null;
+            }
+            return listing;
+        }
+    }
+}
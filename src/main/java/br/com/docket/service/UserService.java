@@ -1,25 +1,31 @@
 package br.com.docket.service;
 
 import br.com.docket.config.Constants;
+import br.com.docket.config.cache.CacheEvictions;
 import br.com.docket.domain.Authority;
 import br.com.docket.domain.User;
-import br.com.docket.repository.AuthorityRepository;
 import br.com.docket.repository.UserRepository;
 import br.com.docket.security.AuthoritiesConstants;
 import br.com.docket.security.SecurityUtils;
 import br.com.docket.service.dto.UserDTO;
 
 import io.github.jhipster.security.RandomUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -33,21 +39,32 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
 
+    private static final int NOT_ACTIVATED_USERS_BATCH_SIZE = 500;
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
 
     private final PasswordEncoder passwordEncoder;
 
-    private final AuthorityRepository authorityRepository;
+    private final AuthorityRegistry authorityRegistry;
 
     private final CacheManager cacheManager;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository, CacheManager cacheManager) {
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter notActivatedUsersDeletedCounter;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRegistry authorityRegistry, CacheManager cacheManager,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.authorityRepository = authorityRepository;
+        this.authorityRegistry = authorityRegistry;
         this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notActivatedUsersDeletedCounter = Counter.builder("users.not.activated.deleted")
+            .description("Number of users deleted for not having been activated in time")
+            .register(meterRegistry);
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -116,9 +133,7 @@ public class UserService {
         newUser.setActivated(false);
         // new user gets registration key
         newUser.setActivationKey(RandomUtil.generateActivationKey());
-        Set<Authority> authorities = new HashSet<>();
-        authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
-        newUser.setAuthorities(authorities);
+        newUser.setAuthorities(authorityRegistry.getReferences(Collections.singleton(AuthoritiesConstants.USER)));
         userRepository.save(newUser);
         this.clearUserCaches(newUser);
         log.debug("Created Information for User: {}", newUser);
@@ -155,12 +170,7 @@ public class UserService {
         user.setResetDate(Instant.now());
         user.setActivated(true);
         if (userDTO.getAuthorities() != null) {
-            Set<Authority> authorities = userDTO.getAuthorities().stream()
-                .map(authorityRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toSet());
-            user.setAuthorities(authorities);
+            user.setAuthorities(authorityRegistry.getReferences(userDTO.getAuthorities()));
         }
         userRepository.save(user);
         this.clearUserCaches(user);
@@ -192,11 +202,7 @@ public class UserService {
                 user.setLangKey(userDTO.getLangKey());
                 Set<Authority> managedAuthorities = user.getAuthorities();
                 managedAuthorities.clear();
-                userDTO.getAuthorities().stream()
-                    .map(authorityRepository::findById)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .forEach(managedAuthorities::add);
+                managedAuthorities.addAll(authorityRegistry.getReferences(userDTO.getAuthorities()));
                 this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
                 return user;
@@ -272,17 +278,37 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
+     * They are deleted by batches of {@value #NOT_ACTIVATED_USERS_BATCH_SIZE}, each one in a short transaction of its
+     * own: authorities first, then users, then their cache entries, without loading them.
+     * <p>
      * This is scheduled to get fired everyday, at 01:00 (am).
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        Pageable batch = PageRequest.of(0, NOT_ACTIVATED_USERS_BATCH_SIZE);
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> removeNotActivatedUsers(createdBefore, batch));
+            notActivatedUsersDeletedCounter.increment(deleted);
+        } while (deleted == NOT_ACTIVATED_USERS_BATCH_SIZE);
+    }
+
+    private int removeNotActivatedUsers(Instant createdBefore, Pageable batch) {
+        List<UserRepository.UserCacheKeys> users = userRepository.findCacheKeysOfNotActivatedUsersCreatedBefore(createdBefore, batch);
+        if (users.isEmpty()) {
+            return 0;
+        }
+        log.debug("Deleting {} not activated users", users.size());
+        List<Long> ids = users.stream().map(UserRepository.UserCacheKeys::getId).collect(Collectors.toList());
+        userRepository.deleteAuthoritiesByUserIdIn(ids);
+        int deleted = userRepository.deleteByIdIn(ids);
+        CacheEvictions.evictAll(Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)),
+            users.stream().map(UserRepository.UserCacheKeys::getLogin).collect(Collectors.toList()));
+        CacheEvictions.evictAll(Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)),
+            users.stream().map(UserRepository.UserCacheKeys::getEmail).filter(Objects::nonNull).collect(Collectors.toList()));
+        return deleted;
     }
 
     /**
@@ -291,7 +317,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public List<String> getAuthorities() {
-        return authorityRepository.findAll().stream().map(Authority::getName).collect(Collectors.toList());
+        return authorityRegistry.getNames();
     }
 
 
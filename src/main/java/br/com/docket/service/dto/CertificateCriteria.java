@@ -0,0 +1,102 @@
+package br.com.docket.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+import io.github.jhipster.service.Criteria;
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link br.com.docket.domain.Certificate} entity. This class is used
+ * in {@link br.com.docket.web.rest.CertificateResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /certificates?name.contains=Nascimento&registryId.equals=5}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class CertificateCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter name;
+
+    private LongFilter registryId;
+
+    public CertificateCriteria() {
+    }
+
+    public CertificateCriteria(CertificateCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.name = other.name == null ? null : other.name.copy();
+        this.registryId = other.registryId == null ? null : other.registryId.copy();
+    }
+
+    @Override
+    public CertificateCriteria copy() {
+        return new CertificateCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getName() {
+        return name;
+    }
+
+    public void setName(StringFilter name) {
+        this.name = name;
+    }
+
+    public LongFilter getRegistryId() {
+        return registryId;
+    }
+
+    public void setRegistryId(LongFilter registryId) {
+        this.registryId = registryId;
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CertificateCriteria that = (CertificateCriteria) o;
+        return
+            Objects.equals(id, that.id) &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(registryId, that.registryId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+        id,
+        name,
+        registryId
+        );
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CertificateCriteria{" +
+                (id != null ? "id=" + id + ", " : "") +
+                (name != null ? "name=" + name + ", " : "") +
+                (registryId != null ? "registryId=" + registryId + ", " : "") +
+            "}";
+    }
+
+}
@@ -0,0 +1,96 @@
+package br.com.docket.service.dto;
+
+import java.time.Instant;
+
+/**
+ * A DTO representing the insertion, update or deletion of an entity listed by the change feed.
+ */
+public class ChangeDTO {
+
+    private String entity;
+
+    private Long id;
+
+    private long changeSequence;
+
+    private Instant lastModifiedDate;
+
+    private boolean deleted;
+
+    private Object data;
+
+    public ChangeDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ChangeDTO(String entity, Long id, long changeSequence, Instant lastModifiedDate, boolean deleted, Object data) {
+        this.entity = entity;
+        this.id = id;
+        this.changeSequence = changeSequence;
+        this.lastModifiedDate = lastModifiedDate;
+        this.deleted = deleted;
+        this.data = data;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public void setEntity(String entity) {
+        this.entity = entity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getChangeSequence() {
+        return changeSequence;
+    }
+
+    public void setChangeSequence(long changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    /**
+     * @return the entity as returned by its REST resource, or {@code null} if it was deleted.
+     */
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeDTO{" +
+            "entity='" + entity + "'" +
+            ", id=" + id +
+            ", changeSequence=" + changeSequence +
+            ", lastModifiedDate=" + lastModifiedDate +
+            ", deleted=" + deleted +
+            "}";
+    }
+}
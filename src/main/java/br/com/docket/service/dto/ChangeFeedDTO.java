@@ -0,0 +1,52 @@
+package br.com.docket.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing a page of the change feed.
+ */
+public class ChangeFeedDTO {
+
+    private List<ChangeDTO> changes = new ArrayList<>();
+
+    private long watermark;
+
+    private boolean hasMore;
+
+    public List<ChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * @return the change sequence to pass as {@code since} for the next page.
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeFeedDTO{" +
+            "changes=" + changes.size() +
+            ", watermark=" + watermark +
+            ", hasMore=" + hasMore +
+            "}";
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.docket.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a bulk import, with the rows which could not be imported.
+ */
+public class ImportReportDTO {
+
+    private long rowsRead;
+
+    private long rowsImported;
+
+    private long rowsFailed;
+
+    private long durationMs;
+
+    private double rowsPerSecond;
+
+    private boolean errorsTruncated;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public void setRowsFailed(long rowsFailed) {
+        this.rowsFailed = rowsFailed;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReportDTO{" +
+            "rowsRead=" + rowsRead +
+            ", rowsImported=" + rowsImported +
+            ", rowsFailed=" + rowsFailed +
+            ", durationMs=" + durationMs +
+            ", rowsPerSecond=" + rowsPerSecond +
+            ", errorsTruncated=" + errorsTruncated +
+            "}";
+    }
+
+    /**
+     * A row which could not be imported, by its line number in the imported file.
+     */
+    public static class RowError {
+
+        private long line;
+
+        private String message;
+
+        public RowError() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return "RowError{" +
+                "line=" + line +
+                ", message='" + message + "'" +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.docket.service.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * An opaque position in a keyset (seek) pagination, made of the sort key and the id of the last row of a page.
+ * <p>
+ * Rows are ordered by {@code (sortKey, id)}; rows without a sort key come last, ordered by id.
+ */
+public class KeysetCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final Long id;
+
+    private final String sortKey;
+
+    public KeysetCursor(Long id, String sortKey) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.sortKey = sortKey;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    /**
+     * Encode this cursor as an URL-safe string.
+     *
+     * @return the encoded cursor.
+     */
+    public String encode() {
+        String raw = sortKey == null ? id.toString() : id.toString() + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @param encoded the encoded cursor.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the value is not a valid cursor.
+     */
+    public static KeysetCursor decode(String encoded) {
+        String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return new KeysetCursor(Long.valueOf(raw), null);
+        }
+        return new KeysetCursor(Long.valueOf(raw.substring(0, separator)), raw.substring(separator + 1));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        KeysetCursor that = (KeysetCursor) o;
+        return id.equals(that.id) && Objects.equals(sortKey, that.sortKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, sortKey);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+            "id=" + id +
+            ", sortKey='" + sortKey + "'" +
+            "}";
+    }
+}
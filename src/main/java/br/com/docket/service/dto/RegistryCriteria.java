@@ -0,0 +1,172 @@
+package br.com.docket.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+import io.github.jhipster.service.Criteria;
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link br.com.docket.domain.Registry} entity. This class is used
+ * in {@link br.com.docket.web.rest.RegistryResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /registries?name.contains=Civil&city.equals=Curitiba}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class RegistryCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter name;
+
+    private StringFilter postalCode;
+
+    private StringFilter streetAddress;
+
+    private StringFilter neighborhood;
+
+    private StringFilter city;
+
+    private StringFilter state;
+
+    private LongFilter certificateId;
+
+    public RegistryCriteria() {
+    }
+
+    public RegistryCriteria(RegistryCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.name = other.name == null ? null : other.name.copy();
+        this.postalCode = other.postalCode == null ? null : other.postalCode.copy();
+        this.streetAddress = other.streetAddress == null ? null : other.streetAddress.copy();
+        this.neighborhood = other.neighborhood == null ? null : other.neighborhood.copy();
+        this.city = other.city == null ? null : other.city.copy();
+        this.state = other.state == null ? null : other.state.copy();
+        this.certificateId = other.certificateId == null ? null : other.certificateId.copy();
+    }
+
+    @Override
+    public RegistryCriteria copy() {
+        return new RegistryCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getName() {
+        return name;
+    }
+
+    public void setName(StringFilter name) {
+        this.name = name;
+    }
+
+    public StringFilter getPostalCode() {
+        return postalCode;
+    }
+
+    public void setPostalCode(StringFilter postalCode) {
+        this.postalCode = postalCode;
+    }
+
+    public StringFilter getStreetAddress() {
+        return streetAddress;
+    }
+
+    public void setStreetAddress(StringFilter streetAddress) {
+        this.streetAddress = streetAddress;
+    }
+
+    public StringFilter getNeighborhood() {
+        return neighborhood;
+    }
+
+    public void setNeighborhood(StringFilter neighborhood) {
+        this.neighborhood = neighborhood;
+    }
+
+    public StringFilter getCity() {
+        return city;
+    }
+
+    public void setCity(StringFilter city) {
+        this.city = city;
+    }
+
+    public StringFilter getState() {
+        return state;
+    }
+
+    public void setState(StringFilter state) {
+        this.state = state;
+    }
+
+    public LongFilter getCertificateId() {
+        return certificateId;
+    }
+
+    public void setCertificateId(LongFilter certificateId) {
+        this.certificateId = certificateId;
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final RegistryCriteria that = (RegistryCriteria) o;
+        return
+            Objects.equals(id, that.id) &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(postalCode, that.postalCode) &&
+            Objects.equals(streetAddress, that.streetAddress) &&
+            Objects.equals(neighborhood, that.neighborhood) &&
+            Objects.equals(city, that.city) &&
+            Objects.equals(state, that.state) &&
+            Objects.equals(certificateId, that.certificateId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+        id,
+        name,
+        postalCode,
+        streetAddress,
+        neighborhood,
+        city,
+        state,
+        certificateId
+        );
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RegistryCriteria{" +
+                (id != null ? "id=" + id + ", " : "") +
+                (name != null ? "name=" + name + ", " : "") +
+                (postalCode != null ? "postalCode=" + postalCode + ", " : "") +
+                (streetAddress != null ? "streetAddress=" + streetAddress + ", " : "") +
+                (neighborhood != null ? "neighborhood=" + neighborhood + ", " : "") +
+                (city != null ? "city=" + city + ", " : "") +
+                (state != null ? "state=" + state + ", " : "") +
+                (certificateId != null ? "certificateId=" + certificateId + ", " : "") +
+            "}";
+    }
+
+}
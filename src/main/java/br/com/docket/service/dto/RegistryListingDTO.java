@@ -0,0 +1,116 @@
+package br.com.docket.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing a registry as listed on the registries page, with the names of its certificates.
+ */
+public class RegistryListingDTO {
+
+    private Long id;
+
+    private String name;
+
+    private String postalCode;
+
+    private String streetAddress;
+
+    private String neighborhood;
+
+    private String city;
+
+    private String state;
+
+    private List<String> certificateNames = new ArrayList<>();
+
+    public RegistryListingDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public RegistryListingDTO(Long id, String name, String postalCode, String streetAddress, String neighborhood, String city, String state) {
+        this.id = id;
+        this.name = name;
+        this.postalCode = postalCode;
+        this.streetAddress = streetAddress;
+        this.neighborhood = neighborhood;
+        this.city = city;
+        this.state = state;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPostalCode() {
+        return postalCode;
+    }
+
+    public void setPostalCode(String postalCode) {
+        this.postalCode = postalCode;
+    }
+
+    public String getStreetAddress() {
+        return streetAddress;
+    }
+
+    public void setStreetAddress(String streetAddress) {
+        this.streetAddress = streetAddress;
+    }
+
+    public String getNeighborhood() {
+        return neighborhood;
+    }
+
+    public void setNeighborhood(String neighborhood) {
+        this.neighborhood = neighborhood;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public List<String> getCertificateNames() {
+        return certificateNames;
+    }
+
+    public void setCertificateNames(List<String> certificateNames) {
+        this.certificateNames = certificateNames;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RegistryListingDTO{" +
+            "id=" + id +
+            ", name='" + name + "'" +
+            ", city='" + city + "'" +
+            ", state='" + state + "'" +
+            ", certificateNames=" + certificateNames +
+            "}";
+    }
+}
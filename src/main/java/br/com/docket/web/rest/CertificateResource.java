@@ -2,21 +2,49 @@ package br.com.docket.web.rest;
 
 import br.com.docket.domain.Certificate;
 import br.com.docket.repository.CertificateRepository;
+import br.com.docket.repository.CertificateRepository.CertificateVersion;
+import br.com.docket.security.AuthoritiesConstants;
+import br.com.docket.service.BulkFormat;
+import br.com.docket.service.BulkImportService;
+import br.com.docket.service.CertificateQueryService;
+import br.com.docket.service.ChangeFeedService;
+import br.com.docket.service.ExportService;
+import br.com.docket.service.MergePatchService;
+import br.com.docket.service.dto.CertificateCriteria;
+import br.com.docket.service.dto.ImportReportDTO;
+import br.com.docket.service.dto.KeysetCursor;
 import br.com.docket.web.rest.errors.BadRequestAlertException;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * REST controller for managing {@link br.com.docket.domain.Certificate}.
@@ -30,13 +58,34 @@ public class CertificateResource {
 
     private static final String ENTITY_NAME = "certificate";
 
+    private static final int MAX_SCROLL_SIZE = 1000;
+
+    private static final List<String> ALLOWED_ORDERED_PROPERTIES = Collections.unmodifiableList(Arrays.asList("id", "name", "registry.id"));
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CertificateRepository certificateRepository;
 
-    public CertificateResource(CertificateRepository certificateRepository) {
+    private final CertificateQueryService certificateQueryService;
+
+    private final BulkImportService bulkImportService;
+
+    private final ExportService exportService;
+
+    private final MergePatchService mergePatchService;
+
+    private final ChangeFeedService changeFeedService;
+
+    public CertificateResource(CertificateRepository certificateRepository, CertificateQueryService certificateQueryService,
+            BulkImportService bulkImportService, ExportService exportService, MergePatchService mergePatchService,
+            ChangeFeedService changeFeedService) {
         this.certificateRepository = certificateRepository;
+        this.certificateQueryService = certificateQueryService;
+        this.bulkImportService = bulkImportService;
+        this.exportService = exportService;
+        this.mergePatchService = mergePatchService;
+        this.changeFeedService = changeFeedService;
     }
 
     /**
@@ -61,46 +110,227 @@ public class CertificateResource {
     /**
      * {@code PUT  /certificates} : Updates an existing certificate.
      *
+     * <p>
+     * With an {@code If-Match} header, the certificate is only updated if it has not changed since the client read it.
+     *
      * @param certificate the certificate to update.
+     * @param ifMatch the entity tag of the certificate read by the client.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated certificate,
      * or with status {@code 400 (Bad Request)} if the certificate is not valid,
+     * or with status {@code 409 (Conflict)} if the certificate has changed since the version in body,
+     * or with status {@code 412 (Precondition Failed)} if the certificate does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the certificate couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/certificates")
-    public ResponseEntity<Certificate> updateCertificate(@RequestBody Certificate certificate) throws URISyntaxException {
+    public ResponseEntity<Certificate> updateCertificate(@RequestBody Certificate certificate,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Certificate : {}", certificate);
         if (certificate.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        Certificate result = certificateRepository.save(certificate);
+        Optional<CertificateVersion> version = certificateRepository.findVersionById(certificate.getId());
+        if (ifMatch != null && !version.filter(current -> EntityTags.matches(ifMatch, etag(current))).isPresent()) {
+            return EntityTags.preconditionFailed();
+        }
+        if (!version.isPresent()) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        if (ifMatch != null || certificate.getVersion() == null) {
+            // The version matched by the client, or the last writer wins for the clients that do not send one
+            certificate.setVersion(version.get().getVersion());
+        }
+        Certificate result = certificateRepository.saveAndFlush(certificate);
         return ResponseEntity.ok()
+            .eTag(etag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, certificate.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /certificates/:id} : Partially updates the "id" certificate with a JSON merge patch.
+     * <p>
+     * Only the fields of the patch are changed, and only their columns are updated. With an {@code If-Match} header,
+     * or a {@code version} in the patch, the certificate is only updated if it has not changed since the client read it.
+     *
+     * @param id the id of the certificate to update.
+     * @param patch the merge patch, with the fields to change and {@code null} for the fields to remove.
+     * @param ifMatch the entity tag of the certificate read by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated certificate,
+     * or with status {@code 400 (Bad Request)} if the certificate is not found or the patch is not valid,
+     * or with status {@code 409 (Conflict)} if the certificate has changed since the version in the patch,
+     * or with status {@code 412 (Precondition Failed)} if the certificate does not match the {@code If-Match} header.
+     */
+    @PatchMapping(value = "/certificates/{id}", consumes = {"application/merge-patch+json", "application/json"})
+    public ResponseEntity<Certificate> partialUpdateCertificate(@PathVariable Long id, @RequestBody JsonNode patch,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("REST request to partially update Certificate {} : {}", id, patch);
+        Optional<Certificate> certificate = certificateRepository.findById(id);
+        if (ifMatch != null && !certificate.filter(current -> EntityTags.matches(ifMatch, etag(current))).isPresent()) {
+            return EntityTags.preconditionFailed();
+        }
+        if (!certificate.isPresent()) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        try {
+            mergePatchService.patchCertificate(certificate.get(), patch);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "patchinvalid");
+        }
+        Certificate result = certificateRepository.saveAndFlush(certificate.get());
+        return ResponseEntity.ok()
+            .eTag(etag(result))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code POST  /certificates/import} : import certificates in bulk.
+     * <p>
+     * The file is read as it is received and inserted in chunks, each in its own transaction, so that the rows of the
+     * chunks already inserted stay when a later row fails.
+     *
+     * @param contentType {@code text/csv} for {@code ;} separated values with a header line, or {@code application/x-ndjson}.
+     * @param input the file to import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import, or with status {@code 400 (Bad Request)} if the CSV header has an unknown column.
+     */
+    @PostMapping(value = "/certificates/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<ImportReportDTO> importCertificates(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+        InputStream input) {
+        log.debug("REST request to import Certificates from {}", contentType);
+        try {
+            return ResponseEntity.ok(bulkImportService.importCertificates(input, BulkFormat.fromContentType(contentType)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+    }
+
+    /**
+     * {@code GET  /certificates/export} : export the certificates, in the formats of {@code POST  /certificates/import}.
+     * <p>
+     * The certificates are streamed from the database to the response as they are read, by change sequence. The
+     * {@code X-Export-Watermark} header holds the change sequence the export goes up to, to pass as {@code since} to only
+     * get the certificates inserted or updated in between. Deletions are listed by {@code GET  /changes}.
+     *
+     * @param format {@code ndjson} or {@code csv}.
+     * @param since the watermark of a previous export, to only export the certificates inserted or updated since.
+     * @param acceptEncoding the encodings accepted by the client, the export is compressed if gzip is one of them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the certificates in body, or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/certificates/export")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<StreamingResponseBody> exportCertificates(@RequestParam(defaultValue = "ndjson") String format,
+        @RequestParam(defaultValue = "0") long since,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("REST request to export Certificates since : {}", since);
+        BulkFormat bulkFormat;
+        try {
+            bulkFormat = ExportResponses.format(format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unsupported export format " + format, ENTITY_NAME, "formatinvalid");
+        }
+        long watermark = exportService.getCertificatesWatermark(since);
+        return ExportResponses.stream("certificates", bulkFormat, watermark, acceptEncoding,
+            output -> exportService.exportCertificates(since, watermark, bulkFormat, output));
+    }
+
     /**
      * {@code GET  /certificates} : get all the certificates.
+     * <p>
+     * The entity tag is the change sequence of the latest change of the certificates and registries, so that the list is
+     * only read again once one has changed. There is none while that change is not {@code settle-ms} old, a transaction
+     * with a lower change sequence possibly still running.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of certificates in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param pageable the pagination information.
+     * @param request the request, with the entity tag of the list read by the client in its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of certificates in body,
+     * or with status {@code 304 (Not Modified)} if the certificates have not changed,
+     * or with status {@code 400 (Bad Request)} if the requested sort is not allowed.
      */
     @GetMapping("/certificates")
-    public List<Certificate> getAllCertificates() {
-        log.debug("REST request to get all Certificates");
-        return certificateRepository.findAll();
+    public ResponseEntity<List<Certificate>> getAllCertificates(CertificateCriteria criteria, Pageable pageable, WebRequest request) {
+        log.debug("REST request to get Certificates by criteria: {}", criteria);
+        if (!onlyContainsAllowedProperties(pageable)) {
+            return ResponseEntity.badRequest().build();
+        }
+        OptionalLong latestChange = changeFeedService.findLatestCertificateChange();
+        if (latestChange.isPresent() && request.checkNotModified(EntityTags.of(latestChange.getAsLong()))) {
+            return EntityTags.notModified();
+        }
+        Page<Certificate> page = certificateQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.addAll(EntityTags.headers());
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /certificates/count} : count all the certificates.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/certificates/count")
+    public ResponseEntity<Long> countCertificates(CertificateCriteria criteria) {
+        log.debug("REST request to count Certificates by criteria: {}", criteria);
+        return ResponseEntity.ok().body(certificateQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /certificates/scroll} : get the certificates following a cursor, ordered by name then id.
+     * <p>
+     * Unlike {@link #getAllCertificates}, the cost of a page does not grow with its depth.
+     * The cursor of the next page is returned in the {@code X-Next-Cursor} header and in a {@code next} link.
+     *
+     * @param after the cursor returned with the previous page, absent for the first page.
+     * @param size the maximum number of certificates to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of certificates in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the size is not valid.
+     */
+    @GetMapping("/certificates/scroll")
+    public ResponseEntity<List<Certificate>> scrollCertificates(@RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "20") int size) {
+        log.debug("REST request to scroll Certificates after : {}", after);
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new BadRequestAlertException("Size must be between 1 and " + MAX_SCROLL_SIZE, ENTITY_NAME, "sizeinvalid");
+        }
+        Slice<Certificate> slice = certificateQueryService.findAllAfter(decodeCursor(after), size);
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            Certificate last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            String next = new KeysetCursor(last.getId(), last.getName()).encode();
+            UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", next)
+                .replaceQueryParam("size", size);
+            headers.add("X-Next-Cursor", next);
+            headers.add(HttpHeaders.LINK, "<" + uriBuilder.toUriString() + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
      * {@code GET  /certificates/:id} : get the "id" certificate.
      *
+     * <p>
+     * The entity tag is made of the versions of the certificate and of its registry, checked against the
+     * {@code If-None-Match} header before the certificate is loaded.
+     *
      * @param id the id of the certificate to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the certificate, or with status {@code 404 (Not Found)}.
+     * @param request the request, with the entity tag of the certificate read by the client in its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the certificate,
+     * or with status {@code 304 (Not Modified)} if the certificate has not changed, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/certificates/{id}")
-    public ResponseEntity<Certificate> getCertificate(@PathVariable Long id) {
+    public ResponseEntity<Certificate> getCertificate(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Certificate : {}", id);
+        Optional<String> etag = certificateRepository.findVersionById(id).map(CertificateResource::etag);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return EntityTags.notModified();
+        }
         Optional<Certificate> certificate = certificateRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(certificate);
+        return ResponseUtil.wrapOrNotFound(certificate, EntityTags.headers());
     }
 
     /**
@@ -115,4 +345,27 @@ public class CertificateResource {
         certificateRepository.deleteById(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
+
+    private static String etag(CertificateVersion version) {
+        return EntityTags.of(version.getVersion(), version.getRegistryVersion());
+    }
+
+    private static String etag(Certificate certificate) {
+        return EntityTags.of(certificate.getVersion(), certificate.getRegistry() == null ? null : certificate.getRegistry().getVersion());
+    }
+
+    private boolean onlyContainsAllowedProperties(Pageable pageable) {
+        return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
+    }
+
+    private KeysetCursor decodeCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            return KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package br.com.docket.web.rest;
+
+import br.com.docket.service.ChangeFeedService;
+import br.com.docket.service.dto.ChangeFeedDTO;
+import br.com.docket.web.rest.errors.BadRequestAlertException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the change feed of {@link br.com.docket.domain.Registry} and {@link br.com.docket.domain.Certificate}.
+ */
+@RestController
+@RequestMapping("/api")
+public class ChangeResource {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeResource.class);
+
+    private static final String ENTITY_NAME = "change";
+
+    private static final int MAX_SIZE = 1000;
+
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeResource(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * {@code GET  /changes} : get the registries and certificates inserted, updated or deleted since a watermark.
+     * <p>
+     * Deleted entities are listed as tombstones, without data. The {@code watermark} of a page is the {@code since}
+     * of the next one, and {@code hasMore} tells whether there is one already.
+     * <p>
+     * Changes are listed once {@code application.changes.settle-ms} old. A transaction committing later than that
+     * after its first change, or a node with a clock behind by more than that, may have changes missed by a watermark.
+     *
+     * @param since the watermark of the previous page, 0 for all the entities.
+     * @param size the number of changes of the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of changes in body,
+     * or with status {@code 400 (Bad Request)} if the size is not valid.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeedDTO> getChanges(@RequestParam(defaultValue = "0") long since,
+        @RequestParam(defaultValue = "100") int size) {
+        log.debug("REST request to get Changes since : {}", since);
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestAlertException("Size must be between 1 and " + MAX_SIZE, ENTITY_NAME, "sizeinvalid");
+        }
+        return ResponseEntity.ok(changeFeedService.findChangesAfter(since, size));
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.docket.web.rest;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Strong entity tags of the registry and certificate resources, derived from the versions or the change sequences of
+ * the entities they represent, so that a conditional request is answered before the entities are loaded.
+ * <p>
+ * The responses may be stored by the client, provided it revalidates them with {@code If-None-Match}.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * @param versions the versions of the entities represented.
+     * @return the quoted entity tag.
+     */
+    static String of(Object... versions) {
+        return Arrays.stream(versions).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * @param ifMatch the {@code If-Match} header, {@code *} or a list of entity tags.
+     * @param etag the current entity tag.
+     * @return whether the header matches the current entity tag, weak entity tags never matching.
+     */
+    static boolean matches(String ifMatch, String etag) {
+        return Arrays.stream(ifMatch.split(","))
+            .map(String::trim)
+            .anyMatch(tag -> "*".equals(tag) || tag.equals(etag));
+    }
+
+    static HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        return headers;
+    }
+
+    static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers()).build();
+    }
+
+    static <T> ResponseEntity<T> preconditionFailed() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.docket.web.rest;
+
+import br.com.docket.service.BulkFormat;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Responses of the export endpoints, written by another thread once the request has been handled, and compressed
+ * when the client accepts gzip.
+ */
+final class ExportResponses {
+
+    static final String WATERMARK_HEADER = "X-Export-Watermark";
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    /**
+     * Writes an export to the response.
+     */
+    @FunctionalInterface
+    interface Export {
+
+        void writeTo(OutputStream output) throws IOException;
+    }
+
+    private ExportResponses() {
+    }
+
+    /**
+     * @param format the name of the export format, {@code csv} or {@code ndjson}.
+     * @return the export format.
+     * @throws IllegalArgumentException if there is no such format.
+     */
+    static BulkFormat format(String format) {
+        return BulkFormat.valueOf(format.toUpperCase(Locale.ENGLISH));
+    }
+
+    static ResponseEntity<StreamingResponseBody> stream(String name, BulkFormat format, long watermark,
+            String acceptEncoding, Export export) {
+
+        boolean gzip = acceptEncoding != null && Arrays.stream(acceptEncoding.split(","))
+            .map(coding -> coding.split(";")[0].trim())
+            .anyMatch("gzip"::equalsIgnoreCase);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType(format.getMediaType(), StandardCharsets.UTF_8));
+        headers.setContentDisposition(ContentDisposition.builder("attachment")
+            .filename(name + "." + format.name().toLowerCase(Locale.ENGLISH))
+            .build());
+        headers.set(WATERMARK_HEADER, Long.toString(watermark));
+        headers.setVary(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING));
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutput = new GZIPOutputStream(output, GZIP_BUFFER_SIZE);
+                export.writeTo(gzipOutput);
+                gzipOutput.finish();
+            } else {
+                export.writeTo(output);
+            }
+        };
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+}
@@ -2,22 +2,48 @@ package br.com.docket.web.rest;
 
 import br.com.docket.domain.Registry;
 import br.com.docket.repository.RegistryRepository;
+import br.com.docket.security.AuthoritiesConstants;
+import br.com.docket.service.BulkFormat;
+import br.com.docket.service.BulkImportService;
+import br.com.docket.service.ChangeFeedService;
+import br.com.docket.service.ExportService;
+import br.com.docket.service.MergePatchService;
+import br.com.docket.service.RegistryQueryService;
+import br.com.docket.service.dto.RegistryCriteria;
+import br.com.docket.service.dto.ImportReportDTO;
+import br.com.docket.service.dto.KeysetCursor;
 import br.com.docket.web.rest.errors.BadRequestAlertException;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * REST controller for managing {@link br.com.docket.domain.Registry}.
@@ -31,13 +57,34 @@ public class RegistryResource {
 
     private static final String ENTITY_NAME = "registry";
 
+    private static final int MAX_SCROLL_SIZE = 1000;
+
+    private static final List<String> ALLOWED_ORDERED_PROPERTIES = Collections.unmodifiableList(Arrays.asList("id", "name", "postalCode", "streetAddress", "neighborhood", "city", "state"));
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final RegistryRepository registryRepository;
 
-    public RegistryResource(RegistryRepository registryRepository) {
+    private final RegistryQueryService registryQueryService;
+
+    private final BulkImportService bulkImportService;
+
+    private final ExportService exportService;
+
+    private final MergePatchService mergePatchService;
+
+    private final ChangeFeedService changeFeedService;
+
+    public RegistryResource(RegistryRepository registryRepository, RegistryQueryService registryQueryService,
+            BulkImportService bulkImportService, ExportService exportService,
+            MergePatchService mergePatchService, ChangeFeedService changeFeedService) {
         this.registryRepository = registryRepository;
+        this.registryQueryService = registryQueryService;
+        this.bulkImportService = bulkImportService;
+        this.exportService = exportService;
+        this.mergePatchService = mergePatchService;
+        this.changeFeedService = changeFeedService;
     }
 
     /**
@@ -62,46 +109,226 @@ public class RegistryResource {
     /**
      * {@code PUT  /registries} : Updates an existing registry.
      *
+     * <p>
+     * With an {@code If-Match} header, the registry is only updated if it has not changed since the client read it.
+     *
      * @param registry the registry to update.
+     * @param ifMatch the entity tag of the registry read by the client.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated registry,
      * or with status {@code 400 (Bad Request)} if the registry is not valid,
+     * or with status {@code 409 (Conflict)} if the registry has changed since the version in body,
+     * or with status {@code 412 (Precondition Failed)} if the registry does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the registry couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/registries")
-    public ResponseEntity<Registry> updateRegistry(@RequestBody Registry registry) throws URISyntaxException {
+    public ResponseEntity<Registry> updateRegistry(@RequestBody Registry registry,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Registry : {}", registry);
         if (registry.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        Registry result = registryRepository.save(registry);
+        Optional<Long> version = registryRepository.findVersionById(registry.getId());
+        if (ifMatch != null && !version.filter(current -> EntityTags.matches(ifMatch, EntityTags.of(current))).isPresent()) {
+            return EntityTags.preconditionFailed();
+        }
+        if (!version.isPresent()) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        if (ifMatch != null || registry.getVersion() == null) {
+            // The version matched by the client, or the last writer wins for the clients that do not send one
+            registry.setVersion(version.get());
+        }
+        Registry result = registryRepository.saveAndFlush(registry);
         return ResponseEntity.ok()
+            .eTag(EntityTags.of(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, registry.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /registries/:id} : Partially updates the "id" registry with a JSON merge patch.
+     * <p>
+     * Only the fields of the patch are changed, and only their columns are updated. With an {@code If-Match} header,
+     * or a {@code version} in the patch, the registry is only updated if it has not changed since the client read it.
+     *
+     * @param id the id of the registry to update.
+     * @param patch the merge patch, with the fields to change and {@code null} for the fields to remove.
+     * @param ifMatch the entity tag of the registry read by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated registry,
+     * or with status {@code 400 (Bad Request)} if the registry is not found or the patch is not valid,
+     * or with status {@code 409 (Conflict)} if the registry has changed since the version in the patch,
+     * or with status {@code 412 (Precondition Failed)} if the registry does not match the {@code If-Match} header.
+     */
+    @PatchMapping(value = "/registries/{id}", consumes = {"application/merge-patch+json", "application/json"})
+    public ResponseEntity<Registry> partialUpdateRegistry(@PathVariable Long id, @RequestBody JsonNode patch,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("REST request to partially update Registry {} : {}", id, patch);
+        Optional<Registry> registry = registryRepository.findById(id);
+        if (ifMatch != null && !registry.filter(current -> EntityTags.matches(ifMatch, EntityTags.of(current.getVersion()))).isPresent()) {
+            return EntityTags.preconditionFailed();
+        }
+        if (!registry.isPresent()) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        try {
+            mergePatchService.patchRegistry(registry.get(), patch);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "patchinvalid");
+        }
+        Registry result = registryRepository.saveAndFlush(registry.get());
+        return ResponseEntity.ok()
+            .eTag(EntityTags.of(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code POST  /registries/import} : import registries in bulk.
+     * <p>
+     * The file is read as it is received and inserted in chunks, each in its own transaction, so that the rows of the
+     * chunks already inserted stay when a later row fails.
+     *
+     * @param contentType {@code text/csv} for {@code ;} separated values with a header line, or {@code application/x-ndjson}.
+     * @param input the file to import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import, or with status {@code 400 (Bad Request)} if the CSV header has an unknown column.
+     */
+    @PostMapping(value = "/registries/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<ImportReportDTO> importRegistries(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+        InputStream input) {
+        log.debug("REST request to import Registries from {}", contentType);
+        try {
+            return ResponseEntity.ok(bulkImportService.importRegistries(input, BulkFormat.fromContentType(contentType)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+    }
+
+    /**
+     * {@code GET  /registries/export} : export the registries, in the formats of {@code POST  /registries/import}.
+     * <p>
+     * The registries are streamed from the database to the response as they are read, by change sequence. The
+     * {@code X-Export-Watermark} header holds the change sequence the export goes up to, to pass as {@code since} to only
+     * get the registries inserted or updated in between. Deletions are listed by {@code GET  /changes}.
+     *
+     * @param format {@code ndjson} or {@code csv}.
+     * @param since the watermark of a previous export, to only export the registries inserted or updated since.
+     * @param acceptEncoding the encodings accepted by the client, the export is compressed if gzip is one of them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the registries in body, or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/registries/export")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<StreamingResponseBody> exportRegistries(@RequestParam(defaultValue = "ndjson") String format,
+        @RequestParam(defaultValue = "0") long since,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("REST request to export Registries since : {}", since);
+        BulkFormat bulkFormat;
+        try {
+            bulkFormat = ExportResponses.format(format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unsupported export format " + format, ENTITY_NAME, "formatinvalid");
+        }
+        long watermark = exportService.getRegistriesWatermark(since);
+        return ExportResponses.stream("registries", bulkFormat, watermark, acceptEncoding,
+            output -> exportService.exportRegistries(since, watermark, bulkFormat, output));
+    }
+
     /**
      * {@code GET  /registries} : get all the registries.
+     * <p>
+     * The entity tag is the change sequence of the latest change of the registries, so that the list is only read again
+     * once a registry has changed. There is none while that change is not {@code settle-ms} old, a transaction with a
+     * lower change sequence possibly still running.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of registries in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param pageable the pagination information.
+     * @param request the request, with the entity tag of the list read by the client in its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of registries in body,
+     * or with status {@code 304 (Not Modified)} if the registries have not changed,
+     * or with status {@code 400 (Bad Request)} if the requested sort is not allowed.
      */
     @GetMapping("/registries")
-    public List<Registry> getAllRegistries() {
-        log.debug("REST request to get all Registries");
-        return registryRepository.findAll();
+    public ResponseEntity<List<Registry>> getAllRegistries(RegistryCriteria criteria, Pageable pageable, WebRequest request) {
+        log.debug("REST request to get Registries by criteria: {}", criteria);
+        if (!onlyContainsAllowedProperties(pageable)) {
+            return ResponseEntity.badRequest().build();
+        }
+        OptionalLong latestChange = changeFeedService.findLatestRegistryChange();
+        if (latestChange.isPresent() && request.checkNotModified(EntityTags.of(latestChange.getAsLong()))) {
+            return EntityTags.notModified();
+        }
+        Page<Registry> page = registryQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.addAll(EntityTags.headers());
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /registries/count} : count all the registries.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/registries/count")
+    public ResponseEntity<Long> countRegistries(RegistryCriteria criteria) {
+        log.debug("REST request to count Registries by criteria: {}", criteria);
+        return ResponseEntity.ok().body(registryQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /registries/scroll} : get the registries following a cursor, ordered by name then id.
+     * <p>
+     * Unlike {@link #getAllRegistries}, the cost of a page does not grow with its depth.
+     * The cursor of the next page is returned in the {@code X-Next-Cursor} header and in a {@code next} link.
+     *
+     * @param after the cursor returned with the previous page, absent for the first page.
+     * @param size the maximum number of registries to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of registries in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the size is not valid.
+     */
+    @GetMapping("/registries/scroll")
+    public ResponseEntity<List<Registry>> scrollRegistries(@RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "20") int size) {
+        log.debug("REST request to scroll Registries after : {}", after);
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new BadRequestAlertException("Size must be between 1 and " + MAX_SCROLL_SIZE, ENTITY_NAME, "sizeinvalid");
+        }
+        Slice<Registry> slice = registryQueryService.findAllAfter(decodeCursor(after), size);
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            Registry last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            String next = new KeysetCursor(last.getId(), last.getName()).encode();
+            UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", next)
+                .replaceQueryParam("size", size);
+            headers.add("X-Next-Cursor", next);
+            headers.add(HttpHeaders.LINK, "<" + uriBuilder.toUriString() + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
      * {@code GET  /registries/:id} : get the "id" registry.
      *
+     * <p>
+     * The entity tag is the version of the registry, checked against the {@code If-None-Match} header before the registry is loaded.
+     *
      * @param id the id of the registry to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the registry, or with status {@code 404 (Not Found)}.
+     * @param request the request, with the entity tag of the registry read by the client in its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the registry,
+     * or with status {@code 304 (Not Modified)} if the registry has not changed, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/registries/{id}")
-    public ResponseEntity<Registry> getRegistry(@PathVariable Long id) {
+    public ResponseEntity<Registry> getRegistry(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Registry : {}", id);
+        Optional<String> etag = registryRepository.findVersionById(id).map(EntityTags::of);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return EntityTags.notModified();
+        }
         Optional<Registry> registry = registryRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(registry);
+        return ResponseUtil.wrapOrNotFound(registry, EntityTags.headers());
     }
 
     /**
@@ -116,4 +343,19 @@ public class RegistryResource {
         registryRepository.deleteById(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
+
+    private boolean onlyContainsAllowedProperties(Pageable pageable) {
+        return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
+    }
+
+    private KeysetCursor decodeCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            return KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package br.com.docket.web.rest;
 
+import br.com.docket.security.LoginRateLimiter;
 import br.com.docket.security.jwt.JWTFilter;
 import br.com.docket.security.jwt.TokenProvider;
 import br.com.docket.web.rest.vm.LoginVM;
@@ -15,6 +16,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 /**
@@ -28,13 +30,19 @@ public class UserJWTController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final LoginRateLimiter loginRateLimiter;
+
+    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder,
+            LoginRateLimiter loginRateLimiter) {
         this.tokenProvider = tokenProvider;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        // Before the password is hashed, so that rejected attempts cost next to nothing
+        loginRateLimiter.checkLoginAttempt(loginVM.getUsername(), request.getRemoteAddr());
 
         UsernamePasswordAuthenticationToken authenticationToken =
             new UsernamePasswordAuthenticationToken(loginVM.getUsername(), loginVM.getPassword());
@@ -1,5 +1,7 @@
 package br.com.docket.web.rest.errors;
 
+import br.com.docket.security.LoginRateLimitExceededException;
+
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.web.util.HeaderUtil;
 
@@ -7,6 +9,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -129,6 +132,19 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(ex, request, HeaderUtil.createFailureAlert(applicationName, false, ex.getEntityName(), ex.getErrorKey(), ex.getMessage()));
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleLoginRateLimitExceededException(LoginRateLimitExceededException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder()
+            .withType(ErrorConstants.TOO_MANY_LOGIN_ATTEMPTS_TYPE)
+            .withTitle("Too many login attempts")
+            .withStatus(Status.TOO_MANY_REQUESTS)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        // Whole seconds, rounded up so that a retry at that time is allowed
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf((ex.getRetryAfter().toMillis() + 999) / 1000));
+        return create(ex, problem, request, headers);
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleConcurrencyFailure(ConcurrencyFailureException ex, NativeWebRequest request) {
         Problem problem = Problem.builder()
@@ -0,0 +1,84 @@
+package br.com.docket.aop.logging;
+
+import br.com.docket.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the timing mode of the {@link LoggingAspect}.
+ */
+public class LoggingAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private LoggingAspect loggingAspect;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getLogging().setAspectMode(ApplicationProperties.AspectMode.TIMING);
+        meterRegistry = new SimpleMeterRegistry();
+        loggingAspect = new LoggingAspect(mock(Environment.class), applicationProperties, meterRegistry);
+    }
+
+    @Test
+    public void testTimesCallsPerClassAndMethod() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("findName", 42L);
+
+        assertThat(loggingAspect.logAround(joinPoint)).isEqualTo("result");
+        assertThat(loggingAspect.logAround(joinPoint)).isEqualTo("result");
+
+        Timer timer = meterRegistry.get("application.calls")
+            .tag("class", "SampleBean")
+            .tag("method", "findName")
+            .timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(meterRegistry.find("application.calls").timers()).hasSize(1);
+    }
+
+    @Test
+    public void testDescribesArgumentsWithoutTheirValues() {
+        String description = LoggingAspect.describeArguments(new Object[]{
+            Arrays.asList("a", "b"), "secret", new byte[3], null, 42L, Collections.singletonMap("key", "value"),
+            PageRequest.of(0, 20)});
+
+        assertThat(description)
+            .isEqualTo("[ArrayList(size=2), String(length=6), byte[3], null, Long, SingletonMap(size=1), PageRequest(size=20)]")
+            .doesNotContain("secret");
+    }
+
+    private ProceedingJoinPoint joinPoint(String methodName, Object... args) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(SampleBean.class.getMethod(methodName, Long.class));
+        when(signature.getName()).thenReturn(methodName);
+        when(signature.getDeclaringTypeName()).thenReturn(SampleBean.class.getName());
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getTarget()).thenReturn(new SampleBean());
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenReturn("result");
+        return joinPoint;
+    }
+
+    public static class SampleBean {
+
+        public String findName(Long id) {
+            return "result";
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.docket.config.cache;
+
+import com.hazelcast.core.ITopic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the {@link TwoLevelCache} class.
+ */
+public class TwoLevelCacheTest {
+
+    private ConcurrentMapCache local;
+
+    private ConcurrentMapCache distributed;
+
+    private ITopic<CacheInvalidation> invalidationTopic;
+
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        local = new ConcurrentMapCache("usersByLogin");
+        distributed = new ConcurrentMapCache("usersByLogin");
+        invalidationTopic = mock(ITopic.class);
+        cache = new TwoLevelCache(local, distributed, invalidationTopic);
+    }
+
+    @Test
+    public void testGetPopulatesLocalCacheFromDistributedCache() {
+        distributed.put("admin", "value");
+
+        assertThat(cache.get("admin", String.class)).isEqualTo("value");
+        assertThat(local.get("admin", String.class)).isEqualTo("value");
+    }
+
+    @Test
+    public void testGetDoesNotKeepValueInvalidatedWhileReadFromDistributedCache() {
+        ConcurrentMapCache racing = new ConcurrentMapCache("usersByLogin") {
+            @Override
+            public ValueWrapper get(Object key) {
+                // Another node replaces the value, and its invalidation is received, once the old one is read
+                ValueWrapper value = super.get(key);
+                super.put(key, "new");
+                cache.invalidateLocal(new CacheInvalidation("usersByLogin", key));
+                return value;
+            }
+        };
+        racing.put("admin", "old");
+        cache = new TwoLevelCache(local, racing, invalidationTopic);
+
+        assertThat(cache.get("admin", String.class)).isEqualTo("old");
+        assertThat(local.get("admin")).isNull();
+    }
+
+    @Test
+    public void testGetReadsLocalCacheFirst() {
+        local.put("admin", "local");
+        distributed.put("admin", "distributed");
+
+        assertThat(cache.get("admin", String.class)).isEqualTo("local");
+    }
+
+    @Test
+    public void testGetWithValueLoaderStoresInBothCaches() {
+        assertThat(cache.get("admin", () -> "loaded")).isEqualTo("loaded");
+
+        assertThat(local.get("admin", String.class)).isEqualTo("loaded");
+        assertThat(distributed.get("admin", String.class)).isEqualTo("loaded");
+    }
+
+    @Test
+    public void testEvictRemovesFromBothCachesAndPublishesInvalidation() {
+        cache.put("admin", "value");
+
+        cache.evict("admin");
+
+        assertThat(local.get("admin")).isNull();
+        assertThat(distributed.get("admin")).isNull();
+        ArgumentCaptor<CacheInvalidation> invalidation = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(invalidationTopic, times(2)).publish(invalidation.capture());
+        assertThat(invalidation.getValue().getCacheName()).isEqualTo("usersByLogin");
+        assertThat(invalidation.getValue().getKey()).isEqualTo("admin");
+    }
+
+    @Test
+    public void testInvalidateLocalOnlyTouchesLocalCache() {
+        cache.put("admin", "value");
+
+        cache.invalidateLocal(new CacheInvalidation("usersByLogin", "admin"));
+
+        assertThat(local.get("admin")).isNull();
+        assertThat(distributed.get("admin", String.class)).isEqualTo("value");
+    }
+
+    @Test
+    public void testInvalidateLocalWithoutKeyClearsLocalCache() {
+        cache.put("admin", "value");
+        cache.put("user", "value");
+
+        cache.invalidateLocal(new CacheInvalidation("usersByLogin", null));
+
+        assertThat(local.get("admin")).isNull();
+        assertThat(local.get("user")).isNull();
+        assertThat(distributed.get("user", String.class)).isEqualTo("value");
+    }
+
+    @Test
+    public void testEvictAllRemovesFromBothCachesAndPublishesOneInvalidation() {
+        cache.put("admin", "value");
+        cache.put("user", "value");
+        cache.put("system", "value");
+
+        cache.evictAll(Arrays.asList("admin", "user"));
+
+        assertThat(local.get("admin")).isNull();
+        assertThat(distributed.get("user")).isNull();
+        assertThat(local.get("system", String.class)).isEqualTo("value");
+        ArgumentCaptor<CacheInvalidation> invalidation = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(invalidationTopic, times(4)).publish(invalidation.capture());
+        assertThat(invalidation.getValue().getKeys()).containsExactly("admin", "user");
+    }
+
+    @Test
+    public void testInvalidateLocalWithKeysOnlyTouchesThoseKeys() {
+        cache.put("admin", "value");
+        cache.put("user", "value");
+
+        cache.invalidateLocal(CacheInvalidation.ofKeys("usersByLogin", Arrays.asList("admin")));
+
+        assertThat(local.get("admin")).isNull();
+        assertThat(local.get("user", String.class)).isEqualTo("value");
+        assertThat(distributed.get("admin", String.class)).isEqualTo("value");
+    }
+}
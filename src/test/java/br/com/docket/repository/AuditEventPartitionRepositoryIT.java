@@ -0,0 +1,25 @@
+package br.com.docket.repository;
+
+import br.com.docket.InterviewApp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link AuditEventPartitionRepository}.
+ */
+@SpringBootTest(classes = InterviewApp.class)
+public class AuditEventPartitionRepositoryIT {
+
+    @Autowired
+    private AuditEventPartitionRepository auditEventPartitionRepository;
+
+    @Test
+    public void testAuditTablesAreNotPartitionedWithoutTheAuditPartitioningContext() {
+        // The tests only run the 'test' Liquibase context, on H2 or PostgreSQL
+        assertThat(auditEventPartitionRepository.isPartitioned()).isFalse();
+    }
+}
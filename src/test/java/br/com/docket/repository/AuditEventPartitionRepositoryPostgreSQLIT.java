@@ -0,0 +1,140 @@
+package br.com.docket.repository;
+
+import br.com.docket.InterviewApp;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Integration tests for {@link AuditEventPartitionRepository} on a PostgreSQL container, with the
+ * 'audit-partitioning' Liquibase context and daily partitions.
+ * <p>
+ * The container is only used by these tests, the partitions created on startup for the current day are left alone.
+ */
+@SpringBootTest(classes = InterviewApp.class, properties = {
+    "spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver",
+    "spring.datasource.url=jdbc:tc:postgresql:12:///audit?TC_TMPFS=/testtmpfs:rw",
+    "spring.datasource.username=interview",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=io.github.jhipster.domain.util.FixedPostgreSQL10Dialect",
+    "spring.liquibase.contexts=test,audit-partitioning",
+    "application.audit.partitioning.granularity=DAY",
+    "application.audit.partitioning.partitions-ahead=1"
+})
+public class AuditEventPartitionRepositoryPostgreSQLIT {
+
+    private static final String EVENT_TABLE = "jhi_persistent_audit_event";
+
+    private static final String DATA_TABLE = "jhi_persistent_audit_evt_data";
+
+    @Autowired
+    private AuditEventPartitionRepository auditEventPartitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    public static void requireDocker() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is needed to start PostgreSQL");
+    }
+
+    @Test
+    public void testPartitionsAreCreatedCutAndDroppedAcrossADayBoundary() {
+        assertThat(auditEventPartitionRepository.isPartitioned()).isTrue();
+
+        auditEventPartitionRepository.createPartitions(utc(2020, 1, 31, 12));
+        assertThat(partitions(EVENT_TABLE)).contains(EVENT_TABLE + "_p20200131", EVENT_TABLE + "_p20200201");
+        assertThat(openDataPartition()).isEqualTo(DATA_TABLE + "_p20200131");
+
+        long lastDayEvent = insertEvent(utc(2020, 1, 31, 23));
+        // Past the partitions created in advance, kept in the default partition until its own is created
+        long defaultEvent = insertEvent(utc(2020, 2, 2, 8));
+        assertThat(eventPartition(lastDayEvent)).isEqualTo(EVENT_TABLE + "_p20200131");
+        assertThat(eventPartition(defaultEvent)).isEqualTo(EVENT_TABLE + "_default");
+
+        auditEventPartitionRepository.createPartitions(utc(2020, 2, 1, 0));
+        assertThat(partitions(EVENT_TABLE)).contains(EVENT_TABLE + "_p20200202");
+        assertThat(eventPartition(defaultEvent)).isEqualTo(EVENT_TABLE + "_p20200202");
+        assertThat(openDataPartition()).isEqualTo(DATA_TABLE + "_p20200201");
+
+        long firstDayEvent = insertEvent(utc(2020, 2, 1, 1));
+        assertThat(eventPartition(firstDayEvent)).isEqualTo(EVENT_TABLE + "_p20200201");
+        // The data partition was cut past the ids handed out before, the next ones go to the new partition
+        assertThat(dataPartition(lastDayEvent)).isNotEqualTo(DATA_TABLE + "_p20200201");
+        assertThat(dataPartition(defaultEvent)).isEqualTo(DATA_TABLE + "_p20200131");
+        assertThat(dataPartition(firstDayEvent)).isEqualTo(DATA_TABLE + "_p20200201");
+
+        auditEventPartitionRepository.dropPartitionsBefore(utc(2020, 2, 1, 0));
+        assertThat(partitions(EVENT_TABLE)).doesNotContain(EVENT_TABLE + "_p20200131")
+            .contains(EVENT_TABLE + "_p20200201", EVENT_TABLE + "_p20200202");
+        assertThat(eventIds()).containsOnly(defaultEvent, firstDayEvent);
+        // Still holds the data of the event of February 2nd
+        assertThat(partitions(DATA_TABLE)).contains(DATA_TABLE + "_p20200131", DATA_TABLE + "_p20200201");
+
+        auditEventPartitionRepository.dropPartitionsBefore(utc(2020, 2, 3, 0));
+        assertThat(partitions(EVENT_TABLE)).doesNotContain(EVENT_TABLE + "_p20200201", EVENT_TABLE + "_p20200202");
+        assertThat(eventIds()).isEmpty();
+        assertThat(partitions(DATA_TABLE)).containsOnly(DATA_TABLE + "_p20200201");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from " + DATA_TABLE, Long.class)).isZero();
+    }
+
+    /**
+     * Insert an audit event with its data, its id drawn from the sequence as Hibernate does.
+     */
+    private long insertEvent(Instant date) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Long id = jdbcTemplate.queryForObject("select nextval('jhi_persistent_audit_event_sequence')", Long.class);
+            jdbcTemplate.update("insert into " + EVENT_TABLE + " (event_id, principal, event_date, event_type) " +
+                "values (?, 'test', ?, 'AUTHENTICATION_SUCCESS')", id, Timestamp.valueOf(LocalDateTime.ofInstant(date, ZoneOffset.UTC)));
+            jdbcTemplate.update("insert into " + DATA_TABLE + " (event_id, name, value) values (?, 'remoteAddress', '127.0.0.1')", id);
+            return id;
+        });
+    }
+
+    private List<String> partitions(String table) {
+        return jdbcTemplate.queryForList("select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+            "join pg_class p on p.oid = i.inhparent where p.relname = ?", String.class, table);
+    }
+
+    private String openDataPartition() {
+        return jdbcTemplate.queryForObject("select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+            "join pg_class p on p.oid = i.inhparent where p.relname = ? and pg_get_expr(c.relpartbound, c.oid) like '%MAXVALUE%'",
+            String.class, DATA_TABLE);
+    }
+
+    private String eventPartition(long eventId) {
+        return jdbcTemplate.queryForObject("select tableoid::regclass::text from " + EVENT_TABLE + " where event_id = ?",
+            String.class, eventId);
+    }
+
+    private String dataPartition(long eventId) {
+        return jdbcTemplate.queryForObject("select tableoid::regclass::text from " + DATA_TABLE + " where event_id = ?",
+            String.class, eventId);
+    }
+
+    private List<Long> eventIds() {
+        return jdbcTemplate.queryForList("select event_id from " + EVENT_TABLE, Long.class);
+    }
+
+    private static Instant utc(int year, int month, int day, int hour) {
+        return LocalDateTime.of(year, month, day, hour, 0).toInstant(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,253 @@
+package br.com.docket.repository;
+
+import br.com.docket.config.ApplicationProperties;
+import br.com.docket.domain.PersistentAuditEvent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link AuditEventWriter}.
+ */
+public class AuditEventWriterTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    @TempDir
+    Path spillDirectory;
+
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private AuditEventWriter auditEventWriter;
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch firstSaveStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseSaves = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        persistenceAuditEventRepository = mock(PersistenceAuditEventRepository.class);
+        when(persistenceAuditEventRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            firstSaveStarted.countDown();
+            releaseSaves.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            List<PersistentAuditEvent> batch = invocation.getArgument(0);
+            batches.add(batch.stream().map(PersistentAuditEvent::getPrincipal).collect(Collectors.toList()));
+            return batch;
+        });
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Writer properties = applicationProperties.getAudit().getWriter();
+        properties.setQueueCapacity(1);
+        properties.setBatchSize(1);
+        properties.setFlushIntervalMs(50);
+        properties.setBlockTimeoutMs(10);
+        properties.setSpillDirectory(spillDirectory.toString());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseSaves.countDown();
+        if (auditEventWriter != null) {
+            auditEventWriter.stop();
+        }
+    }
+
+    @Test
+    public void testWritesSynchronouslyWhenNotAsync() {
+        applicationProperties.getAudit().getWriter().setAsync(false);
+        releaseSaves.countDown();
+        startWriter();
+
+        auditEventWriter.write(event("user-1"));
+
+        assertThat(batches).containsExactly(singletonBatch("user-1"));
+    }
+
+    @Test
+    public void testFlushesFullBatch() throws InterruptedException {
+        ApplicationProperties.Writer properties = applicationProperties.getAudit().getWriter();
+        properties.setQueueCapacity(10);
+        properties.setBatchSize(3);
+        properties.setFlushIntervalMs(TIMEOUT_MS);
+        releaseSaves.countDown();
+        startWriter();
+
+        auditEventWriter.write(event("user-1"));
+        auditEventWriter.write(event("user-2"));
+        auditEventWriter.write(event("user-3"));
+
+        awaitBatches(1);
+        assertThat(batches.get(0)).containsExactly("user-1", "user-2", "user-3");
+    }
+
+    @Test
+    public void testFlushesPartialBatchAfterInterval() throws InterruptedException {
+        applicationProperties.getAudit().getWriter().setBatchSize(10);
+        releaseSaves.countDown();
+        startWriter();
+
+        auditEventWriter.write(event("user-1"));
+
+        awaitBatches(1);
+        assertThat(batches).containsExactly(singletonBatch("user-1"));
+    }
+
+    @Test
+    public void testBlockDropsEventAfterTimeout() throws InterruptedException {
+        applicationProperties.getAudit().getWriter().setOverflowPolicy(ApplicationProperties.OverflowPolicy.BLOCK);
+        startWriter();
+        fillQueue();
+
+        auditEventWriter.write(event("user-3"));
+        releaseSaves.countDown();
+
+        awaitBatches(2);
+        assertThat(batches).containsExactly(singletonBatch("user-1"), singletonBatch("user-2"));
+        assertThat(meterRegistry.get("audit.events.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDropOldestKeepsNewestEvent() throws InterruptedException {
+        applicationProperties.getAudit().getWriter().setOverflowPolicy(ApplicationProperties.OverflowPolicy.DROP_OLDEST);
+        startWriter();
+        fillQueue();
+
+        auditEventWriter.write(event("user-3"));
+        releaseSaves.countDown();
+
+        awaitBatches(2);
+        assertThat(batches).containsExactly(singletonBatch("user-1"), singletonBatch("user-3"));
+        assertThat(meterRegistry.get("audit.events.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSpillPersistsEventOnceQueueHasDrained() throws InterruptedException {
+        applicationProperties.getAudit().getWriter().setOverflowPolicy(ApplicationProperties.OverflowPolicy.SPILL);
+        startWriter();
+        fillQueue();
+
+        auditEventWriter.write(event("user-3"));
+        assertThat(meterRegistry.get("audit.events.spilled").counter().count()).isEqualTo(1);
+        releaseSaves.countDown();
+
+        awaitBatches(3);
+        assertThat(batches).containsExactly(singletonBatch("user-1"), singletonBatch("user-2"), singletonBatch("user-3"));
+        auditEventWriter.stop();
+        assertThat(spillDirectory.toFile().list()).isEmpty();
+    }
+
+    @Test
+    public void testReplayKeepsSpilledEventsWhichCouldNotBePersisted() throws Exception {
+        applicationProperties.getAudit().getWriter().setBatchSize(2);
+        ObjectMapper objectMapper = objectMapper();
+        Path spillFile = spillDirectory.resolve("audit-events-1.ndjson");
+        List<String> lines = new ArrayList<>();
+        for (String principal : Arrays.asList("user-1", "user-2", "user-3")) {
+            lines.add(objectMapper.writeValueAsString(event(principal)));
+        }
+        Files.write(spillFile, lines, StandardCharsets.UTF_8);
+        // The database goes down after the first batch
+        doAnswer(invocation -> {
+            List<PersistentAuditEvent> batch = invocation.getArgument(0);
+            batches.add(batch.stream().map(PersistentAuditEvent::getPrincipal).collect(Collectors.toList()));
+            return batch;
+        }).doThrow(new DataAccessResourceFailureException("Database down"))
+            .when(persistenceAuditEventRepository).saveAll(anyList());
+        startWriter();
+
+        verify(persistenceAuditEventRepository, timeout(TIMEOUT_MS).atLeast(2)).saveAll(anyList());
+        auditEventWriter.stop();
+
+        assertThat(batches).containsExactly(Arrays.asList("user-1", "user-2"));
+        assertThat(Files.readAllLines(spillFile, StandardCharsets.UTF_8)).containsExactly(lines.get(2));
+        assertThat(spillDirectory.toFile().list()).containsExactly(spillFile.getFileName().toString());
+        assertThat(meterRegistry.get("audit.events.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    public void testStopFlushesQueuedEvents() {
+        ApplicationProperties.Writer properties = applicationProperties.getAudit().getWriter();
+        properties.setQueueCapacity(10);
+        properties.setBatchSize(10);
+        properties.setFlushIntervalMs(TIMEOUT_MS);
+        releaseSaves.countDown();
+        startWriter();
+
+        auditEventWriter.write(event("user-1"));
+        auditEventWriter.write(event("user-2"));
+        auditEventWriter.stop();
+
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly("user-1", "user-2");
+    }
+
+    private void startWriter() {
+        auditEventWriter = new AuditEventWriter(persistenceAuditEventRepository, mock(PlatformTransactionManager.class),
+            objectMapper(), applicationProperties, meterRegistry);
+        auditEventWriter.start();
+    }
+
+    private static ObjectMapper objectMapper() {
+        return new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    /**
+     * Get the writer stuck saving a first event, with a second one filling the queue.
+     */
+    private void fillQueue() throws InterruptedException {
+        auditEventWriter.write(event("user-1"));
+        assertThat(firstSaveStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)).isTrue();
+        auditEventWriter.write(event("user-2"));
+    }
+
+    private void awaitBatches(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (batches.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(batches).hasSize(count);
+    }
+
+    private static PersistentAuditEvent event(String principal) {
+        PersistentAuditEvent persistentAuditEvent = new PersistentAuditEvent();
+        persistentAuditEvent.setPrincipal(principal);
+        persistentAuditEvent.setAuditEventType("test-type");
+        persistentAuditEvent.setAuditEventDate(Instant.now());
+        return persistentAuditEvent;
+    }
+
+    private static List<String> singletonBatch(String principal) {
+        List<String> batch = new ArrayList<>();
+        batch.add(principal);
+        return batch;
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.docket.repository;
+
+import br.com.docket.InterviewApp;
+import br.com.docket.config.sql.SqlStatementCounter;
+import br.com.docket.service.CertificateQueryService;
+import br.com.docket.service.RegistryQueryService;
+import br.com.docket.service.dto.CertificateCriteria;
+import br.com.docket.service.dto.RegistryCriteria;
+
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Integration tests checking, with {@code EXPLAIN}, that the hot registry and certificate queries use their indexes.
+ * <p>
+ * The queries explained are the ones Hibernate generates for the repositories and the query services, recorded by the
+ * {@link SqlStatementCounter}, explained with the same parameters.
+ * Runs against H2 by default and against PostgreSQL with the {@code testcontainers} profile.
+ */
+@SpringBootTest(classes = InterviewApp.class)
+@Transactional
+public class RegistryCertificateIndexIT {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private RegistryRepository registryRepository;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private RegistryQueryService registryQueryService;
+
+    @Autowired
+    private CertificateQueryService certificateQueryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    public void init() throws SQLException {
+        for (int i = 0; i < 50; i++) {
+            jdbcTemplate.update("insert into registry (id, name, postal_code, city, state) values (?, ?, ?, ?, ?)",
+                -1000L - i, "Registry " + i, "8000" + i, "City " + (i % 10), "S" + (i % 5));
+            jdbcTemplate.update("insert into certificate (id, name, registry_id) values (?, ?, ?)",
+                -1000L - i, "Certificate " + i, -1000L - i);
+        }
+        if (isPostgreSQL()) {
+            // On a nearly empty table a sequential scan is always cheaper, only check that the index can be used
+            jdbcTemplate.execute("set local enable_seqscan = off");
+        }
+    }
+
+    @Test
+    public void certificatesOfRegistriesUseRegistryIdIndex() {
+        String sql = recordQuery(() -> certificateRepository.findNamesByRegistryIdIn(Arrays.asList(-1001L, -1002L)));
+        assertThat(explain(sql, -1001L, -1002L))
+            // H2 also indexes foreign keys on its own and may pick that index instead
+            .containsAnyOf("idx_certificate_registry_id_id", "fk_certificate_registry_id");
+    }
+
+    @Test
+    public void registryFiltersUseTheirIndexes() {
+        RegistryCriteria byCity = new RegistryCriteria();
+        byCity.setCity(equalTo("City 1"));
+        assertThat(explain(recordQuery(() -> registryQueryService.findByCriteria(byCity, PageRequest.of(0, PAGE_SIZE))),
+            "City 1", PAGE_SIZE)).contains("idx_registry_city");
+
+        RegistryCriteria byState = new RegistryCriteria();
+        byState.setState(equalTo("S1"));
+        assertThat(explain(recordQuery(() -> registryQueryService.findByCriteria(byState, PageRequest.of(0, PAGE_SIZE))),
+            "S1", PAGE_SIZE)).contains("idx_registry_state");
+
+        RegistryCriteria byPostalCode = new RegistryCriteria();
+        byPostalCode.setPostalCode(equalTo("80001"));
+        assertThat(explain(recordQuery(() -> registryQueryService.findByCriteria(byPostalCode, PageRequest.of(0, PAGE_SIZE))),
+            "80001", PAGE_SIZE)).contains("idx_registry_postal_code");
+    }
+
+    @Test
+    public void registryKeysetPageUsesNameIndex() {
+        String sql = recordQuery(() -> registryRepository.findNamedPageAfter("Registry 1", -1001L, PageRequest.of(0, PAGE_SIZE)));
+        assertThat(explain(sql, "Registry 1", "Registry 1", -1001L, PAGE_SIZE)).contains("idx_registry_name_id");
+    }
+
+    @Test
+    public void certificateKeysetPageUsesNameIndex() {
+        String sql = recordQuery(() -> certificateRepository.findNamedPageAfter("Certificate 1", -1001L, PageRequest.of(0, PAGE_SIZE)));
+        assertThat(explain(sql, "Certificate 1", "Certificate 1", -1001L, PAGE_SIZE)).contains("idx_certificate_name_id");
+    }
+
+    @Test
+    public void nameFiltersUseTrigramIndexes() throws SQLException {
+        // The trigram indexes are only created on PostgreSQL, H2 scans the table for a like '%VALUE%'
+        assumeTrue(isPostgreSQL(), "The trigram indexes only exist on PostgreSQL");
+
+        RegistryCriteria registryCriteria = new RegistryCriteria();
+        registryCriteria.setName(containing("egistry 1"));
+        String registrySql = recordQuery(() -> registryQueryService.findByCriteria(registryCriteria, PageRequest.of(0, PAGE_SIZE)));
+        assertThat(registrySql.toLowerCase(Locale.ROOT)).contains("upper(").contains(" like ?");
+        assertThat(explain(registrySql, "%EGISTRY 1%", PAGE_SIZE)).contains("idx_registry_upper_name_trgm");
+
+        CertificateCriteria certificateCriteria = new CertificateCriteria();
+        certificateCriteria.setName(containing("ertificate 1"));
+        String certificateSql = recordQuery(() -> certificateQueryService.findByCriteria(certificateCriteria, PageRequest.of(0, PAGE_SIZE)));
+        assertThat(explain(certificateSql, "%ERTIFICATE 1%", PAGE_SIZE)).contains("idx_certificate_upper_name_trgm");
+    }
+
+    /**
+     * Run a query and return the SQL Hibernate generated for it, which must be a single statement: the pages checked
+     * here are not full, so no count query is run.
+     */
+    private static String recordQuery(Runnable query) {
+        SqlStatementCounter.startRecording();
+        List<String> statements;
+        try {
+            query.run();
+        } finally {
+            statements = SqlStatementCounter.stopRecording();
+        }
+        assertThat(statements).hasSize(1);
+        return statements.get(0);
+    }
+
+    private String explain(String query, Object... parameters) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + query, String.class, parameters)).toLowerCase(Locale.ROOT);
+        assertThat(plan).doesNotContain("seq scan").doesNotContain("tablescan");
+        return plan;
+    }
+
+    private static StringFilter equalTo(String value) {
+        StringFilter filter = new StringFilter();
+        filter.setEquals(value);
+        return filter;
+    }
+
+    private static StringFilter containing(String value) {
+        StringFilter filter = new StringFilter();
+        filter.setContains(value);
+        return filter;
+    }
+
+    private boolean isPostgreSQL() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -112,4 +113,16 @@ public class DomainUserDetailsServiceIT {
             () -> domainUserDetailsService.loadUserByUsername(USER_THREE_LOGIN));
     }
 
+    @Test
+    public void assertThatUpgradedPasswordIsStored() {
+        UserDetails userDetails = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        String newPassword = RandomStringUtils.random(60);
+
+        UserDetails upgraded = ((UserDetailsPasswordService) domainUserDetailsService).updatePassword(userDetails, newPassword);
+
+        assertThat(upgraded.getUsername()).isEqualTo(USER_ONE_LOGIN);
+        assertThat(upgraded.getPassword()).isEqualTo(newPassword);
+        assertThat(userRepository.findOneByLogin(USER_ONE_LOGIN)).get()
+            .extracting(User::getPassword).isEqualTo(newPassword);
+    }
 }
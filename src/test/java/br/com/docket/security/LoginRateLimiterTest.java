@@ -0,0 +1,104 @@
+package br.com.docket.security;
+
+import br.com.docket.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link LoginRateLimiter}.
+ */
+public class LoginRateLimiterTest {
+
+    private static final long NOW = 1_600_000_000_000L;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private Clock clock;
+
+    private LoginRateLimiter loginRateLimiter;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.LoginRateLimit properties = applicationProperties.getLoginRateLimit();
+        properties.getLogin().setCapacity(3);
+        properties.getLogin().setRefillPeriodMs(60000);
+        properties.getAddress().setCapacity(5);
+        properties.getAddress().setRefillPeriodMs(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(NOW);
+        loginRateLimiter = new LoginRateLimiter(applicationProperties, null, meterRegistry, clock);
+    }
+
+    @Test
+    public void testAllowsBurstThenRejectsLogin() {
+        for (int i = 0; i < 3; i++) {
+            loginRateLimiter.checkLoginAttempt("user", "10.0.0." + i);
+        }
+
+        LoginRateLimitExceededException exception = catchThrowableOfType(
+            () -> loginRateLimiter.checkLoginAttempt("USER", "10.0.0.9"), LoginRateLimitExceededException.class);
+
+        assertThat(exception.getRetryAfter()).isEqualTo(Duration.ofMinutes(1));
+        assertThat(meterRegistry.get("login.rate.limited").tag("key", "login").counter().count()).isEqualTo(1);
+        assertThatCode(() -> loginRateLimiter.checkLoginAttempt("other-user", "10.0.0.9")).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void testRefillsOneTokenPerPeriod() {
+        for (int i = 0; i < 3; i++) {
+            loginRateLimiter.checkLoginAttempt("user", "10.0.0." + i);
+        }
+
+        when(clock.millis()).thenReturn(NOW + 59000);
+        LoginRateLimitExceededException exception = catchThrowableOfType(
+            () -> loginRateLimiter.checkLoginAttempt("user", "10.0.0.9"), LoginRateLimitExceededException.class);
+        assertThat(exception.getRetryAfter()).isEqualTo(Duration.ofSeconds(1));
+
+        when(clock.millis()).thenReturn(NOW + 60000);
+        assertThatCode(() -> loginRateLimiter.checkLoginAttempt("user", "10.0.0.9")).doesNotThrowAnyException();
+        assertThat(catchThrowableOfType(() -> loginRateLimiter.checkLoginAttempt("user", "10.0.0.9"),
+            LoginRateLimitExceededException.class)).isNotNull();
+    }
+
+    @Test
+    public void testRejectsAddressBeforeTakingLoginToken() {
+        for (int i = 0; i < 5; i++) {
+            loginRateLimiter.checkLoginAttempt("user-" + i, "10.0.0.1");
+        }
+
+        LoginRateLimitExceededException exception = catchThrowableOfType(
+            () -> loginRateLimiter.checkLoginAttempt("user", "10.0.0.1"), LoginRateLimitExceededException.class);
+
+        assertThat(exception.getRetryAfter()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("login.rate.limited").tag("key", "address").counter().count()).isEqualTo(1);
+        // The rejected attempt did not take a token of "user"
+        for (int i = 0; i < 3; i++) {
+            loginRateLimiter.checkLoginAttempt("user", "10.0.1." + i);
+        }
+    }
+
+    @Test
+    public void testAllowsEverythingWhenDisabled() {
+        applicationProperties.getLoginRateLimit().setEnabled(false);
+
+        for (int i = 0; i < 10; i++) {
+            loginRateLimiter.checkLoginAttempt("user", "10.0.0.1");
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.docket.security;
+
+import br.com.docket.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Test class for the {@link PasswordHashingService}.
+ */
+public class PasswordHashingServiceTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Password properties = applicationProperties.getPassword();
+        properties.setAutoTune(false);
+        properties.setStrength(4);
+        properties.setMinStrength(4);
+        properties.setMaxStrength(6);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (passwordHashingService != null) {
+            passwordHashingService.shutdown();
+        }
+    }
+
+    @Test
+    public void testEncodesAndMatches() {
+        passwordHashingService = new PasswordHashingService(applicationProperties, meterRegistry);
+
+        String hash = passwordHashingService.encode("password");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(passwordHashingService.matches("password", hash)).isTrue();
+        assertThat(passwordHashingService.matches("wrong-password", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("password.hashing.queue").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testTunesToMinStrengthWhenTargetIsUnreachable() {
+        applicationProperties.getPassword().setTargetDurationMs(0);
+
+        assertThat(PasswordHashingService.tuneStrength(applicationProperties.getPassword())).isEqualTo(4);
+    }
+
+    @Test
+    public void testTunesWithinMaxStrength() {
+        applicationProperties.getPassword().setTargetDurationMs(TIMEOUT_MS);
+
+        assertThat(PasswordHashingService.tuneStrength(applicationProperties.getPassword())).isEqualTo(6);
+    }
+
+    @Test
+    public void testUpgradesLowerStrengthHashes() {
+        applicationProperties.getPassword().setStrength(5);
+        passwordHashingService = new PasswordHashingService(applicationProperties, meterRegistry);
+
+        assertThat(passwordHashingService.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(passwordHashingService.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password"))).isFalse();
+        assertThat(passwordHashingService.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password"))).isFalse();
+    }
+
+    @Test
+    public void testRejectsHashesWhenQueueIsFull() throws Exception {
+        applicationProperties.getPassword().setPoolSize(1);
+        applicationProperties.getPassword().setQueueCapacity(1);
+        passwordHashingService = new PasswordHashingService(applicationProperties, meterRegistry);
+        String hash = passwordHashingService.encode("password");
+        CountDownLatch hashingStarted = new CountDownLatch(1);
+        CountDownLatch releaseHashing = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // The only hashing thread is held by the first call, the second one waits in the queue
+            Future<Boolean> running = callers.submit(() ->
+                passwordHashingService.matches(new BlockingPassword(hashingStarted, releaseHashing), hash));
+            assertThat(hashingStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)).isTrue();
+            Future<Boolean> queued = callers.submit(() -> passwordHashingService.matches("password", hash));
+            awaitQueueSize(1);
+
+            assertThatExceptionOfType(AuthenticationServiceException.class)
+                .isThrownBy(() -> passwordHashingService.matches("password", hash));
+            assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+            releaseHashing.countDown();
+            assertThat(running.get(TIMEOUT_MS, TimeUnit.MILLISECONDS)).isTrue();
+            assertThat(queued.get(TIMEOUT_MS, TimeUnit.MILLISECONDS)).isTrue();
+        } finally {
+            releaseHashing.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    private void awaitQueueSize(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (meterRegistry.get("password.hashing.queue.size").gauge().value() < size &&
+            System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get("password.hashing.queue.size").gauge().value()).isEqualTo(size);
+    }
+
+    /**
+     * "password", which only hands its characters to BCrypt once released.
+     */
+    private static final class BlockingPassword implements CharSequence {
+
+        private final String password = "password";
+
+        private final CountDownLatch started;
+
+        private final CountDownLatch release;
+
+        BlockingPassword(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public int length() {
+            return password.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return password.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return password.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            started.countDown();
+            try {
+                release.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return password;
+        }
+    }
+}
@@ -35,6 +35,7 @@ public class TokenProviderTest {
             .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8"));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
+        ReflectionTestUtils.setField(tokenProvider, "jwtParser", Jwts.parserBuilder().setSigningKey(key).build());
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
     }
 
@@ -83,6 +84,48 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testAuthenticateReturnsAuthenticationOfValidToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> authentication = tokenProvider.authenticate(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("anonymous");
+        assertThat(authentication.get().getCredentials()).isEqualTo(token);
+        assertThat(authentication.get().getAuthorities()).extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    public void testAuthenticateGivesEachRequestOfSameTokenItsOwnAuthentication() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication first = tokenProvider.authenticate(token).get();
+        ((UsernamePasswordAuthenticationToken) first).setDetails("first request");
+        first.setAuthenticated(false);
+        Authentication second = tokenProvider.authenticate(token).get();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPrincipal()).isEqualTo(first.getPrincipal());
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        assertThat(second.getDetails()).isNull();
+        assertThat(second.isAuthenticated()).isTrue();
+    }
+
+    @Test
+    public void testAuthenticateReturnsEmptyWhenJWTisExpired() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+    }
+
+    @Test
+    public void testAuthenticateReturnsEmptyWhenJWThasInvalidSignature() {
+        assertThat(tokenProvider.authenticate(createTokenWithDifferentSignature())).isEmpty();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
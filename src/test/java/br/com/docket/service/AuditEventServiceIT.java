@@ -3,12 +3,16 @@ package br.com.docket.service;
 import br.com.docket.domain.PersistentAuditEvent;
 import br.com.docket.repository.PersistenceAuditEventRepository;
 import br.com.docket.InterviewApp;
+import br.com.docket.config.ApplicationProperties;
 import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
@@ -29,6 +33,15 @@ public class AuditEventServiceIT {
     @Autowired
     private JHipsterProperties jHipsterProperties;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager em;
+
     private PersistentAuditEvent auditEventOld;
 
     private PersistentAuditEvent auditEventWithinRetention;
@@ -70,4 +83,38 @@ public class AuditEventServiceIT {
         assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-retention")).isNotEmpty();
         assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-new")).isNotEmpty();
     }
+
+    @Test
+    @Transactional
+    public void verifyOldAuditEventsAreDeletedInBatchesWithTheirData() {
+        int batchSize = applicationProperties.getAudit().getPurge().getBatchSize();
+        applicationProperties.getAudit().getPurge().setBatchSize(2);
+        try {
+            persistenceAuditEventRepository.deleteAll();
+            Instant old = Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod() + 1, ChronoUnit.DAYS);
+            for (int i = 0; i < 5; i++) {
+                PersistentAuditEvent auditEvent = new PersistentAuditEvent();
+                auditEvent.setAuditEventDate(old.minusSeconds(i));
+                auditEvent.setPrincipal("test-user-old");
+                auditEvent.setAuditEventType("test-type");
+                auditEvent.getData().put("remoteAddress", "127.0.0.1");
+                persistenceAuditEventRepository.save(auditEvent);
+            }
+            auditEventNew.getData().put("remoteAddress", "127.0.0.1");
+            persistenceAuditEventRepository.save(auditEventNew);
+            double purgedBefore = meterRegistry.get("audit.events.purged").counter().count();
+
+            persistenceAuditEventRepository.flush();
+            auditEventService.removeOldAuditEvents();
+            em.clear();
+
+            assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-old")).isEmpty();
+            assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-new")).hasSize(1);
+            assertThat(((Number) em.createNativeQuery("select count(*) from jhi_persistent_audit_evt_data")
+                .getSingleResult()).intValue()).isEqualTo(1);
+            assertThat(meterRegistry.get("audit.events.purged").counter().count() - purgedBefore).isEqualTo(5);
+        } finally {
+            applicationProperties.getAudit().getPurge().setBatchSize(batchSize);
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package br.com.docket.service;
+
+import br.com.docket.InterviewApp;
+import br.com.docket.domain.Authority;
+import br.com.docket.repository.AuthorityRepository;
+import br.com.docket.security.AuthoritiesConstants;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link AuthorityRegistry}.
+ */
+@SpringBootTest(classes = InterviewApp.class)
+public class AuthorityRegistryIT {
+
+    private static final String TEST_AUTHORITY = "ROLE_TEST";
+
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void assertThatNamesListAllAuthorities() {
+        assertThat(authorityRegistry.getNames()).containsExactly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+    }
+
+    @Test
+    public void assertThatReferencesIgnoreUnknownAuthorities() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Set<Authority> references = transactionTemplate.execute(status ->
+            authorityRegistry.getReferences(Arrays.asList(AuthoritiesConstants.USER, "ROLE_UNKNOWN")));
+
+        assertThat(references).extracting(Authority::getName).containsExactly(AuthoritiesConstants.USER);
+    }
+
+    @Test
+    public void assertThatCommittedChangesRefreshTheNames() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Authority authority = new Authority();
+        authority.setName(TEST_AUTHORITY);
+        transactionTemplate.execute(status -> authorityRepository.save(authority));
+        try {
+            assertThat(authorityRegistry.getNames()).contains(TEST_AUTHORITY);
+        } finally {
+            transactionTemplate.execute(status -> {
+                authorityRepository.deleteById(TEST_AUTHORITY);
+                return null;
+            });
+        }
+        assertThat(authorityRegistry.getNames()).doesNotContain(TEST_AUTHORITY);
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.docket.service;
+
+import br.com.docket.InterviewApp;
+import br.com.docket.domain.Certificate;
+import br.com.docket.domain.Registry;
+import br.com.docket.service.dto.RegistryListingDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link RegistryService}.
+ */
+@SpringBootTest(classes = InterviewApp.class)
+@Transactional
+public class RegistryServiceIT {
+
+    @Autowired
+    private RegistryService registryService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    @Transactional
+    public void assertThatListingsGroupCertificateNamesByRegistry() {
+        Registry first = new Registry().name("AAAAAAAAAA").city("São Paulo").state("SP");
+        Registry second = new Registry().name("BBBBBBBBBB").city("Curitiba").state("PR");
+        em.persist(first);
+        em.persist(second);
+        em.persist(new Certificate().name("Certidão de nascimento").registry(first));
+        em.persist(new Certificate().name("Certidão de casamento").registry(first));
+        em.persist(new Certificate().name("Certidão de óbito").registry(second));
+        em.flush();
+        em.clear();
+
+        Page<RegistryListingDTO> page = registryService.findAllListings(PageRequest.of(0, Integer.MAX_VALUE, Sort.by("id")));
+
+        RegistryListingDTO firstListing = page.getContent().stream().filter(listing -> listing.getId().equals(first.getId())).findFirst().get();
+        RegistryListingDTO secondListing = page.getContent().stream().filter(listing -> listing.getId().equals(second.getId())).findFirst().get();
+        assertThat(firstListing.getName()).isEqualTo("AAAAAAAAAA");
+        assertThat(firstListing.getCertificateNames()).containsExactly("Certidão de casamento", "Certidão de nascimento");
+        assertThat(secondListing.getCertificateNames()).containsExactly("Certidão de óbito");
+    }
+
+    @Test
+    @Transactional
+    public void assertThatListingsArePaginated() {
+        for (int i = 0; i < 3; i++) {
+            em.persist(new Registry().name("Registry " + i));
+        }
+        em.flush();
+
+        Page<RegistryListingDTO> page = registryService.findAllListings(PageRequest.of(0, 2, Sort.by("id")));
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    @Transactional
+    public void assertThatStreamedListingsGroupCertificateNamesByRegistry() {
+        Registry withCertificates = new Registry().name("AAAAAAAAAA");
+        Registry withoutCertificates = new Registry().name("AAAAAAAAAB");
+        em.persist(withCertificates);
+        em.persist(withoutCertificates);
+        em.persist(new Certificate().name("Certidão de nascimento").registry(withCertificates));
+        em.persist(new Certificate().name("Certidão de casamento").registry(withCertificates));
+        em.flush();
+        em.clear();
+
+        List<RegistryListingDTO> listings = new ArrayList<>();
+        registryService.streamAllListings(registries -> registries.forEachRemaining(listings::add));
+
+        assertThat(listings).extracting(RegistryListingDTO::getId).doesNotHaveDuplicates()
+            .contains(withCertificates.getId(), withoutCertificates.getId());
+        RegistryListingDTO first = listings.stream().filter(listing -> listing.getId().equals(withCertificates.getId())).findFirst().get();
+        RegistryListingDTO second = listings.stream().filter(listing -> listing.getId().equals(withoutCertificates.getId())).findFirst().get();
+        assertThat(first.getCertificateNames()).containsExactly("Certidão de casamento", "Certidão de nascimento");
+        assertThat(second.getCertificateNames()).isEmpty();
+    }
+}
@@ -2,8 +2,10 @@ package br.com.docket.service;
 
 import br.com.docket.InterviewApp;
 import br.com.docket.config.Constants;
+import br.com.docket.domain.Authority;
 import br.com.docket.domain.User;
 import br.com.docket.repository.UserRepository;
+import br.com.docket.security.AuthoritiesConstants;
 import br.com.docket.service.dto.UserDTO;
 
 import io.github.jhipster.security.RandomUtil;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
@@ -23,7 +26,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -57,6 +62,9 @@ public class UserServiceIT {
     @Autowired
     private AuditingHandler auditingHandler;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Mock
     private DateTimeProvider dateTimeProvider;
 
@@ -170,6 +178,29 @@ public class UserServiceIT {
         assertThat(users).isEmpty();
     }
 
+    @Test
+    @Transactional
+    public void assertThatNotActivatedUsersAreDeletedWithTheirAuthoritiesAndCacheEntries() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        user.setActivated(false);
+        user.setActivationKey(RandomStringUtils.random(20));
+        user.setAuthorities(Collections.singleton(authority));
+        User dbUser = userRepository.saveAndFlush(user);
+        dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
+        userRepository.saveAndFlush(user);
+        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).put(DEFAULT_LOGIN, dbUser);
+        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).put(DEFAULT_EMAIL, dbUser);
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findOneByLogin(DEFAULT_LOGIN)).isNotPresent();
+        assertThat(Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).get(DEFAULT_LOGIN)).isNull();
+        assertThat(Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).get(DEFAULT_EMAIL)).isNull();
+    }
+
     @Test
     @Transactional
     public void assertThatNotActivatedUsersWithNullActivationKeyCreatedBefore3DaysAreNotDeleted() {
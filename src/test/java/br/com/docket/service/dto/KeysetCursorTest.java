@@ -0,0 +1,38 @@
+package br.com.docket.service.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KeysetCursorTest {
+
+    @Test
+    public void cursorWithSortKeyRoundTrips() {
+        KeysetCursor cursor = new KeysetCursor(42L, "Cartório: 1º Ofício");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    public void cursorWithoutSortKeyRoundTrips() {
+        KeysetCursor cursor = new KeysetCursor(42L, null);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.getId()).isEqualTo(42L);
+        assertThat(decoded.getSortKey()).isNull();
+    }
+
+    @Test
+    public void cursorWithEmptySortKeyIsNotConfusedWithMissingSortKey() {
+        KeysetCursor cursor = new KeysetCursor(42L, "");
+
+        assertThat(KeysetCursor.decode(cursor.encode()).getSortKey()).isEmpty();
+    }
+
+    @Test
+    public void invalidCursorIsRejected() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
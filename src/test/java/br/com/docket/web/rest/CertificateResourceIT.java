@@ -2,21 +2,32 @@ package br.com.docket.web.rest;
 
 import br.com.docket.InterviewApp;
 import br.com.docket.domain.Certificate;
+import br.com.docket.domain.Registry;
 import br.com.docket.repository.CertificateRepository;
+import br.com.docket.repository.RegistryRepository;
+import br.com.docket.security.AuthoritiesConstants;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
 import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,6 +46,9 @@ public class CertificateResourceIT {
     @Autowired
     private CertificateRepository certificateRepository;
 
+    @Autowired
+    private RegistryRepository registryRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -122,6 +136,79 @@ public class CertificateResourceIT {
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
     }
     
+    @Test
+    @Transactional
+    public void getAllCertificatesWithNotAllowedSort() throws Exception {
+        restCertificateMockMvc.perform(get("/api/certificates?sort=registry.name,desc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getAllCertificatesByNameContainsSomething() throws Exception {
+        // Initialize the database
+        certificateRepository.saveAndFlush(certificate);
+
+        // Get all the certificateList where name contains DEFAULT_NAME
+        defaultCertificateShouldBeFound("name.contains=" + DEFAULT_NAME);
+
+        // Get all the certificateList where name contains UPDATED_NAME
+        defaultCertificateShouldNotBeFound("name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void getAllCertificatesByRegistryIsEqualToSomething() throws Exception {
+        // Initialize the database
+        certificateRepository.saveAndFlush(certificate);
+        Registry registry = RegistryResourceIT.createEntity(em);
+        em.persist(registry);
+        em.flush();
+        certificate.setRegistry(registry);
+        certificateRepository.saveAndFlush(certificate);
+        Long registryId = registry.getId();
+
+        // Get all the certificateList where registry equals to registryId
+        defaultCertificateShouldBeFound("registryId.equals=" + registryId);
+
+        // Get all the certificateList where registry equals to registryId + 1
+        defaultCertificateShouldNotBeFound("registryId.equals=" + (registryId + 1));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultCertificateShouldBeFound(String filter) throws Exception {
+        restCertificateMockMvc.perform(get("/api/certificates?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(certificate.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+
+        // Check, that the count call also returns 1
+        restCertificateMockMvc.perform(get("/api/certificates/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultCertificateShouldNotBeFound(String filter) throws Exception {
+        restCertificateMockMvc.perform(get("/api/certificates?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restCertificateMockMvc.perform(get("/api/certificates/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
     @Test
     @Transactional
     public void getCertificate() throws Exception {
@@ -135,6 +222,54 @@ public class CertificateResourceIT {
             .andExpect(jsonPath("$.id").value(certificate.getId().intValue()))
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
     }
+
+    @Test
+    @Transactional
+    public void getCertificateNotModified() throws Exception {
+        // Initialize the database
+        Registry registry = registryRepository.saveAndFlush(RegistryResourceIT.createEntity(em));
+        certificateRepository.saveAndFlush(certificate.registry(registry));
+
+        restCertificateMockMvc.perform(get("/api/certificates/{id}", certificate.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0-0\""));
+        restCertificateMockMvc.perform(get("/api/certificates/{id}", certificate.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+            .andExpect(status().isNotModified());
+
+        // Update the registry, which is part of the certificate
+        registryRepository.saveAndFlush(registry.name("Updated registry"));
+
+        restCertificateMockMvc.perform(get("/api/certificates/{id}", certificate.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0-1\""))
+            .andExpect(jsonPath("$.registry.name").value("Updated registry"));
+    }
+
+    @Test
+    @Transactional
+    public void partialUpdateCertificateRegistry() throws Exception {
+        // Initialize the database
+        Registry registry = registryRepository.saveAndFlush(RegistryResourceIT.createEntity(em));
+        certificateRepository.saveAndFlush(certificate);
+
+        restCertificateMockMvc.perform(patch("/api/certificates/{id}", certificate.getId())
+            .contentType("application/merge-patch+json")
+            .content("{\"registry\":{\"id\":" + registry.getId() + "}}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1-0\""))
+            .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.registry.id").value(registry.getId().intValue()));
+        assertThat(certificateRepository.findById(certificate.getId()).get().getRegistry()).isEqualTo(registry);
+
+        restCertificateMockMvc.perform(patch("/api/certificates/{id}", certificate.getId())
+            .contentType("application/merge-patch+json")
+            .content("{\"registry\":{\"id\":" + Long.MAX_VALUE + "}}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.patchinvalid"));
+    }
+
     @Test
     @Transactional
     public void getNonExistingCertificate() throws Exception {
@@ -203,4 +338,66 @@ public class CertificateResourceIT {
         List<Certificate> certificateList = certificateRepository.findAll();
         assertThat(certificateList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    public void importCertificatesFromNdjson() throws Exception {
+        // The import commits its own transactions, so this test is not transactional and removes what it imported
+        Registry registry = registryRepository.saveAndFlush(RegistryResourceIT.createEntity(em));
+        String ndjson = "{\"name\":\"IMPORTED_NDJSON_1\",\"registryId\":" + registry.getId() + "}\n" +
+            "{\"id\":1,\"name\":\"IMPORTED_NDJSON_2\",\"registry\":{\"id\":" + registry.getId() + "}}\n" +
+            "\n" +
+            "{\"name\":\"IMPORTED_NDJSON_3\",\"registryId\":" + Long.MAX_VALUE + "}\n" +
+            "not json\n";
+        try {
+            restCertificateMockMvc.perform(post("/api/certificates/import")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(4))
+                .andExpect(jsonPath("$.rowsImported").value(2))
+                .andExpect(jsonPath("$.rowsFailed").value(2))
+                .andExpect(jsonPath("$.errors.[*].line").value(containsInAnyOrder(4, 5)))
+                .andExpect(jsonPath("$.errors.[*].message").value(hasItem("Unknown registry_id " + Long.MAX_VALUE)));
+
+            List<Certificate> imported = findImported("IMPORTED_NDJSON_");
+            assertThat(imported).extracting(Certificate::getName).containsExactlyInAnyOrder("IMPORTED_NDJSON_1", "IMPORTED_NDJSON_2");
+            assertThat(imported).extracting(certificate -> certificate.getRegistry().getId()).containsOnly(registry.getId());
+        } finally {
+            certificateRepository.deleteAll(findImported("IMPORTED_NDJSON_"));
+            registryRepository.delete(registry);
+        }
+    }
+
+    @Test
+    public void exportCertificatesWithGzip() throws Exception {
+        // The export reads from another thread, so this test is not transactional and removes what it inserted
+        Registry registry = registryRepository.saveAndFlush(RegistryResourceIT.createEntity(em));
+        Certificate exported = certificateRepository.saveAndFlush(new Certificate().name("EXPORTED_1").registry(registry));
+        try {
+            MvcResult mvcResult = restCertificateMockMvc.perform(get("/api/certificates/export?format=csv&since={since}", exported.getChangeSequence() - 1)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            byte[] body = restCertificateMockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string("X-Export-Watermark", exported.getChangeSequence().toString()))
+                .andReturn().getResponse().getContentAsByteArray();
+
+            try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                assertThat(StreamUtils.copyToString(input, StandardCharsets.UTF_8))
+                    .isEqualTo("id;name;registry_id\n" + exported.getId() + ";EXPORTED_1;" + registry.getId() + "\n");
+            }
+        } finally {
+            certificateRepository.delete(exported);
+            registryRepository.delete(registry);
+        }
+    }
+
+    private List<Certificate> findImported(String prefix) {
+        return certificateRepository.findAll().stream()
+            .filter(certificate -> certificate.getName() != null && certificate.getName().startsWith(prefix))
+            .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,97 @@
+package br.com.docket.web.rest;
+
+import br.com.docket.InterviewApp;
+import br.com.docket.domain.Certificate;
+import br.com.docket.domain.Registry;
+import br.com.docket.repository.CertificateRepository;
+import br.com.docket.repository.RegistryRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link ChangeResource} REST controller.
+ */
+@SpringBootTest(classes = InterviewApp.class)
+@AutoConfigureMockMvc
+@WithMockUser
+public class ChangeResourceIT {
+
+    @Autowired
+    private RegistryRepository registryRepository;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restChangeMockMvc;
+
+    @Test
+    @Transactional
+    public void getChangesSinceWatermark() throws Exception {
+        Registry registry = registryRepository.saveAndFlush(RegistryResourceIT.createEntity(em));
+        Certificate certificate = certificateRepository.saveAndFlush(CertificateResourceIT.createEntity(em).registry(registry));
+        Registry deleted = registryRepository.saveAndFlush(RegistryResourceIT.createEntity(em));
+        registryRepository.delete(deleted);
+        registryRepository.flush();
+
+        // The changes of a transaction share their change sequence
+        long changeSequence = registry.getChangeSequence();
+        assertThat(certificate.getChangeSequence()).isEqualTo(changeSequence);
+        assertThat(registry.getLastModifiedDate()).isNotNull();
+
+        restChangeMockMvc.perform(get("/api/changes?since={since}", changeSequence - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.changes", hasSize(3)))
+            .andExpect(jsonPath("$.changes.[*].entity").value(contains("certificate", "registry", "registry")))
+            .andExpect(jsonPath("$.changes.[*].id").value(contains(
+                certificate.getId().intValue(), registry.getId().intValue(), deleted.getId().intValue())))
+            .andExpect(jsonPath("$.changes.[*].deleted").value(contains(false, false, true)))
+            .andExpect(jsonPath("$.changes.[1].data.name").value(registry.getName()))
+            .andExpect(jsonPath("$.changes.[2].data").isEmpty())
+            .andExpect(jsonPath("$.watermark").value(changeSequence))
+            .andExpect(jsonPath("$.hasMore").value(false));
+
+        restChangeMockMvc.perform(get("/api/changes?since={since}", changeSequence))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.changes", hasSize(0)))
+            .andExpect(jsonPath("$.watermark").value(changeSequence));
+    }
+
+    @Test
+    @Transactional
+    public void getChangesDoesNotSplitTransactions() throws Exception {
+        Registry first = registryRepository.saveAndFlush(RegistryResourceIT.createEntity(em));
+        registryRepository.saveAndFlush(RegistryResourceIT.createEntity(em));
+        long changeSequence = first.getChangeSequence();
+
+        restChangeMockMvc.perform(get("/api/changes?since={since}&size=1", changeSequence - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.changes", hasSize(2)))
+            .andExpect(jsonPath("$.watermark").value(changeSequence))
+            .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    public void getChangesWithInvalidSize() throws Exception {
+        restChangeMockMvc.perform(get("/api/changes?size=0"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.sizeinvalid"));
+    }
+}
@@ -1,22 +1,32 @@
 package br.com.docket.web.rest;
 
 import br.com.docket.InterviewApp;
+import br.com.docket.config.sql.SqlStatementCounter;
+import br.com.docket.domain.Certificate;
 import br.com.docket.domain.Registry;
 import br.com.docket.repository.RegistryRepository;
+import br.com.docket.security.AuthoritiesConstants;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -145,6 +155,7 @@ public class RegistryResourceIT {
         registryRepository.saveAndFlush(registry);
 
         // Get all the registryList
+        SqlStatementCount sqlStatementCount = SqlStatementCount.start();
         restRegistryMockMvc.perform(get("/api/registries?sort=id,desc"))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
@@ -155,8 +166,157 @@ public class RegistryResourceIT {
             .andExpect(jsonPath("$.[*].neighborhood").value(hasItem(DEFAULT_NEIGHBORHOOD)))
             .andExpect(jsonPath("$.[*].city").value(hasItem(DEFAULT_CITY)))
             .andExpect(jsonPath("$.[*].state").value(hasItem(DEFAULT_STATE)));
+        // The page query, plus its count query when the page is full, and no lazy loading of the certificates
+        sqlStatementCount.assertAtMostStatements(2);
     }
     
+    @Test
+    @Transactional
+    public void getAllRegistriesWithNotAllowedSort() throws Exception {
+        restRegistryMockMvc.perform(get("/api/registries?sort=certificates,desc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getAllRegistriesByNameContainsSomething() throws Exception {
+        // Initialize the database
+        registryRepository.saveAndFlush(registry);
+
+        // Get all the registryList where name contains DEFAULT_NAME
+        defaultRegistryShouldBeFound("name.contains=" + DEFAULT_NAME);
+
+        // Get all the registryList where name contains UPDATED_NAME
+        defaultRegistryShouldNotBeFound("name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void getAllRegistriesByPostalCodeIsEqualToSomething() throws Exception {
+        // Initialize the database
+        registryRepository.saveAndFlush(registry);
+
+        // Get all the registryList where postalCode equals to DEFAULT_POSTAL_CODE
+        defaultRegistryShouldBeFound("postalCode.equals=" + DEFAULT_POSTAL_CODE);
+
+        // Get all the registryList where postalCode equals to UPDATED_POSTAL_CODE
+        defaultRegistryShouldNotBeFound("postalCode.equals=" + UPDATED_POSTAL_CODE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllRegistriesByCityIsEqualToSomething() throws Exception {
+        // Initialize the database
+        registryRepository.saveAndFlush(registry);
+
+        // Get all the registryList where city equals to DEFAULT_CITY
+        defaultRegistryShouldBeFound("city.equals=" + DEFAULT_CITY);
+
+        // Get all the registryList where city equals to UPDATED_CITY
+        defaultRegistryShouldNotBeFound("city.equals=" + UPDATED_CITY);
+    }
+
+    @Test
+    @Transactional
+    public void getAllRegistriesByStateIsInShouldWork() throws Exception {
+        // Initialize the database
+        registryRepository.saveAndFlush(registry);
+
+        // Get all the registryList where state in DEFAULT_STATE or UPDATED_STATE
+        defaultRegistryShouldBeFound("state.in=" + DEFAULT_STATE + "," + UPDATED_STATE);
+
+        // Get all the registryList where state equals to UPDATED_STATE
+        defaultRegistryShouldNotBeFound("state.in=" + UPDATED_STATE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllRegistriesByCertificateIsEqualToSomething() throws Exception {
+        // Initialize the database
+        registryRepository.saveAndFlush(registry);
+        Certificate certificate = CertificateResourceIT.createEntity(em);
+        em.persist(certificate);
+        em.flush();
+        registry.addCertificate(certificate);
+        registryRepository.saveAndFlush(registry);
+        Long certificateId = certificate.getId();
+
+        // Get all the registryList where certificate equals to certificateId
+        defaultRegistryShouldBeFound("certificateId.equals=" + certificateId);
+
+        // Get all the registryList where certificate equals to certificateId + 1
+        defaultRegistryShouldNotBeFound("certificateId.equals=" + (certificateId + 1));
+    }
+
+    @Test
+    @Transactional
+    public void scrollRegistries() throws Exception {
+        // Initialize the database with two named registries and an unnamed one, which comes last
+        registryRepository.deleteAll();
+        registryRepository.saveAndFlush(registry);
+        Registry updatedRegistry = registryRepository.saveAndFlush(createUpdatedEntity(em));
+        Registry unnamedRegistry = registryRepository.saveAndFlush(createEntity(em).name(null));
+
+        // Get the first page
+        String next = restRegistryMockMvc.perform(get("/api/registries/scroll?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[0].id").value(registry.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(updatedRegistry.getId().intValue()))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        // Get the last page
+        restRegistryMockMvc.perform(get("/api/registries/scroll?size=2&after=" + next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(unnamedRegistry.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @Transactional
+    public void scrollRegistriesWithInvalidCursor() throws Exception {
+        restRegistryMockMvc.perform(get("/api/registries/scroll?after=not-a-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultRegistryShouldBeFound(String filter) throws Exception {
+        restRegistryMockMvc.perform(get("/api/registries?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(registry.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].city").value(hasItem(DEFAULT_CITY)))
+            .andExpect(jsonPath("$.[*].state").value(hasItem(DEFAULT_STATE)));
+
+        // Check, that the count call also returns 1
+        restRegistryMockMvc.perform(get("/api/registries/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultRegistryShouldNotBeFound(String filter) throws Exception {
+        restRegistryMockMvc.perform(get("/api/registries?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restRegistryMockMvc.perform(get("/api/registries/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
     @Test
     @Transactional
     public void getRegistry() throws Exception {
@@ -220,6 +380,185 @@ public class RegistryResourceIT {
         assertThat(testRegistry.getState()).isEqualTo(UPDATED_STATE);
     }
 
+    @Test
+    @Transactional
+    public void getRegistryNotModified() throws Exception {
+        // Initialize the database
+        registryRepository.saveAndFlush(registry);
+
+        restRegistryMockMvc.perform(get("/api/registries/{id}", registry.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+        restRegistryMockMvc.perform(get("/api/registries/{id}", registry.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Update the registry, its version changes
+        registryRepository.saveAndFlush(registry.name(UPDATED_NAME));
+
+        restRegistryMockMvc.perform(get("/api/registries/{id}", registry.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+    }
+
+    @Test
+    public void getAllRegistriesNotModified() throws Exception {
+        // The entity tag changes with the change sequence, drawn once per transaction, so this test is not
+        // transactional and removes what it inserted
+        registry = registryRepository.saveAndFlush(registry);
+        try {
+            String etag = restRegistryMockMvc.perform(get("/api/registries?sort=id,desc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + registry.getChangeSequence() + "\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            restRegistryMockMvc.perform(get("/api/registries?sort=id,desc")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+            // Update the registry, the list changes
+            registry = registryRepository.saveAndFlush(registry.name(UPDATED_NAME));
+
+            restRegistryMockMvc.perform(get("/api/registries?sort=id,desc")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + registry.getChangeSequence() + "\""))
+                .andExpect(jsonPath("$.[*].name").value(hasItem(UPDATED_NAME)));
+
+            // Delete it, the list changes again
+            etag = "\"" + registry.getChangeSequence() + "\"";
+            registryRepository.delete(registry);
+            restRegistryMockMvc.perform(get("/api/registries?sort=id,desc")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        } finally {
+            registryRepository.findById(registry.getId()).ifPresent(registryRepository::delete);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void updateRegistryWithIfMatch() throws Exception {
+        // Initialize the database
+        registryRepository.saveAndFlush(registry);
+
+        Registry updatedRegistry = registryRepository.findById(registry.getId()).get();
+        em.detach(updatedRegistry);
+        updatedRegistry.name(UPDATED_NAME);
+
+        // A stale entity tag is not updated
+        restRegistryMockMvc.perform(put("/api/registries")
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(updatedRegistry)))
+            .andExpect(status().isPreconditionFailed());
+
+        restRegistryMockMvc.perform(put("/api/registries")
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(updatedRegistry)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.version").value(1));
+        assertThat(registryRepository.findById(registry.getId()).get().getName()).isEqualTo(UPDATED_NAME);
+
+        // The version in body is now stale too
+        restRegistryMockMvc.perform(put("/api/registries")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(updatedRegistry)))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Transactional
+    public void partialUpdateRegistry() throws Exception {
+        // Initialize the database
+        registryRepository.saveAndFlush(registry);
+
+        int databaseSizeBeforeUpdate = registryRepository.findAll().size();
+
+        // Change the name and remove the city
+        restRegistryMockMvc.perform(patch("/api/registries/{id}", registry.getId())
+            .contentType("application/merge-patch+json")
+            .content("{\"name\":\"" + UPDATED_NAME + "\",\"city\":null,\"version\":0}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.version").value(1));
+
+        // Validate the Registry in the database
+        List<Registry> registryList = registryRepository.findAll();
+        assertThat(registryList).hasSize(databaseSizeBeforeUpdate);
+        Registry testRegistry = registryRepository.findById(registry.getId()).get();
+        assertThat(testRegistry.getName()).isEqualTo(UPDATED_NAME);
+        assertThat(testRegistry.getPostalCode()).isEqualTo(DEFAULT_POSTAL_CODE);
+        assertThat(testRegistry.getStreetAddress()).isEqualTo(DEFAULT_STREET_ADDRESS);
+        assertThat(testRegistry.getNeighborhood()).isEqualTo(DEFAULT_NEIGHBORHOOD);
+        assertThat(testRegistry.getCity()).isNull();
+        assertThat(testRegistry.getState()).isEqualTo(DEFAULT_STATE);
+    }
+
+    @Test
+    @Transactional
+    public void partialUpdateRegistryOnlyUpdatesPatchedColumns() throws Exception {
+        // Initialize the database
+        registryRepository.saveAndFlush(registry);
+
+        SqlStatementCounter.startRecording();
+        List<String> statements;
+        try {
+            restRegistryMockMvc.perform(patch("/api/registries/{id}", registry.getId())
+                .contentType("application/merge-patch+json")
+                .content("{\"name\":\"" + UPDATED_NAME + "\"}"))
+                .andExpect(status().isOk());
+        } finally {
+            statements = SqlStatementCounter.stopRecording();
+        }
+
+        // A single update, which leaves the columns the patch does not change alone
+        List<String> updates = statements.stream()
+            .map(sql -> sql.toLowerCase(Locale.ROOT))
+            .filter(sql -> sql.startsWith("update registry"))
+            .collect(Collectors.toList());
+        assertThat(updates).hasSize(1);
+        assertThat(updates.get(0)).contains("name=")
+            .doesNotContain("postal_code").doesNotContain("street_address").doesNotContain("neighborhood")
+            .doesNotContain("city").doesNotContain("state");
+    }
+
+    @Test
+    @Transactional
+    public void partialUpdateRegistryWithInvalidPatch() throws Exception {
+        // Initialize the database
+        registryRepository.saveAndFlush(registry);
+
+        // The certificates are not a field of the registry table
+        restRegistryMockMvc.perform(patch("/api/registries/{id}", registry.getId())
+            .contentType("application/merge-patch+json")
+            .content("{\"certificates\":[]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.patchinvalid"));
+
+        restRegistryMockMvc.perform(patch("/api/registries/{id}", registry.getId())
+            .contentType("application/merge-patch+json")
+            .content("{\"id\":" + (registry.getId() + 1) + "}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.patchinvalid"));
+
+        restRegistryMockMvc.perform(patch("/api/registries/{id}", Long.MAX_VALUE)
+            .contentType("application/merge-patch+json")
+            .content("{\"name\":\"" + UPDATED_NAME + "\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.idnotfound"));
+
+        // A stale version is not updated
+        restRegistryMockMvc.perform(patch("/api/registries/{id}", registry.getId())
+            .contentType("application/merge-patch+json")
+            .content("{\"name\":\"" + UPDATED_NAME + "\",\"version\":1}"))
+            .andExpect(status().isConflict());
+    }
+
     @Test
     @Transactional
     public void updateNonExistingRegistry() throws Exception {
@@ -253,4 +592,138 @@ public class RegistryResourceIT {
         List<Registry> registryList = registryRepository.findAll();
         assertThat(registryList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    public void importRegistriesFromCsv() throws Exception {
+        // The import commits its own transactions, so this test is not transactional and removes what it imported
+        String csv = "id;name;postal_code;street_address;neighborhood;city;state\n" +
+            "1;IMPORTED_CSV_1;01001-000;\"Praça da Sé; 1\";Sé;São Paulo;SP\n" +
+            ";IMPORTED_CSV_2;;\"Rua \"\"B\"\"\nfundos\";;;\n" +
+            ";IMPORTED_CSV_3;too;many;fields;;;;\n";
+        try {
+            restRegistryMockMvc.perform(post("/api/registries/import")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(3))
+                .andExpect(jsonPath("$.rowsImported").value(2))
+                .andExpect(jsonPath("$.rowsFailed").value(1))
+                .andExpect(jsonPath("$.errors.[0].line").value(5))
+                .andExpect(jsonPath("$.errors.[0].message").value(containsString("Expected 7 fields")));
+
+            List<Registry> imported = findImported("IMPORTED_CSV_");
+            assertThat(imported).extracting(Registry::getName).containsExactlyInAnyOrder("IMPORTED_CSV_1", "IMPORTED_CSV_2");
+            assertThat(imported).filteredOn(registry -> "IMPORTED_CSV_1".equals(registry.getName()))
+                .extracting(Registry::getStreetAddress).containsExactly("Praça da Sé; 1");
+            assertThat(imported).filteredOn(registry -> "IMPORTED_CSV_2".equals(registry.getName()))
+                .extracting(Registry::getStreetAddress).containsExactly("Rua \"B\"\nfundos");
+        } finally {
+            registryRepository.deleteAll(findImported("IMPORTED_CSV_"));
+        }
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    public void importRegistriesRowByRowWhenChunkFails() throws Exception {
+        // The state is longer than its column, so the chunk fails in the database and its rows are retried one by one
+        String tooLong = String.join("", Collections.nCopies(256, "S"));
+        String csv = "name;state\n" +
+            "IMPORTED_CSV_1;SP\n" +
+            "IMPORTED_CSV_2;" + tooLong + "\n" +
+            "IMPORTED_CSV_3;RJ\n";
+        try {
+            restRegistryMockMvc.perform(post("/api/registries/import")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(3))
+                .andExpect(jsonPath("$.rowsImported").value(2))
+                .andExpect(jsonPath("$.rowsFailed").value(1))
+                .andExpect(jsonPath("$.errors.[0].line").value(3));
+
+            assertThat(findImported("IMPORTED_CSV_")).extracting(Registry::getName)
+                .containsExactlyInAnyOrder("IMPORTED_CSV_1", "IMPORTED_CSV_3");
+        } finally {
+            registryRepository.deleteAll(findImported("IMPORTED_CSV_"));
+        }
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    public void importRegistriesWithUnknownColumn() throws Exception {
+        restRegistryMockMvc.perform(post("/api/registries/import")
+            .contentType("text/csv")
+            .content("name;country\nIMPORTED_CSV_1;BR\n"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.importinvalid"));
+
+        assertThat(findImported("IMPORTED_CSV_")).isEmpty();
+    }
+
+    @Test
+    public void importRegistriesIsForbiddenToUsers() throws Exception {
+        restRegistryMockMvc.perform(post("/api/registries/import")
+            .contentType("text/csv")
+            .content("name\nIMPORTED_CSV_1\n"))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void exportRegistriesSince() throws Exception {
+        // The export reads from another thread, so this test is not transactional and removes what it inserted
+        Registry before = registryRepository.saveAndFlush(new Registry().name("EXPORTED_0"));
+        Registry first = registryRepository.saveAndFlush(new Registry().name("EXPORTED_1").city("São Paulo"));
+        Registry second = registryRepository.saveAndFlush(new Registry().name("EXPORTED_2; \"B\""));
+        try {
+            MvcResult ndjson = restRegistryMockMvc.perform(get("/api/registries/export?since={since}", before.getChangeSequence()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restRegistryMockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().string("X-Export-Watermark", second.getChangeSequence().toString()))
+                .andExpect(content().string(
+                    "{\"id\":" + first.getId() + ",\"name\":\"EXPORTED_1\",\"postalCode\":null,\"streetAddress\":null," +
+                        "\"neighborhood\":null,\"city\":\"São Paulo\",\"state\":null}\n" +
+                    "{\"id\":" + second.getId() + ",\"name\":\"EXPORTED_2; \\\"B\\\"\",\"postalCode\":null,\"streetAddress\":null," +
+                        "\"neighborhood\":null,\"city\":null,\"state\":null}\n"));
+
+            MvcResult csv = restRegistryMockMvc.perform(get("/api/registries/export?format=csv&since={since}", before.getChangeSequence()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restRegistryMockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id;name;postal_code;street_address;neighborhood;city;state\n" +
+                    first.getId() + ";EXPORTED_1;;;;São Paulo;\n" +
+                    second.getId() + ";\"EXPORTED_2; \"\"B\"\"\";;;;;\n"));
+
+            // An update after the watermark is exported again
+            first = registryRepository.saveAndFlush(first.state("SP"));
+            MvcResult update = restRegistryMockMvc.perform(get("/api/registries/export?format=csv&since={since}", second.getChangeSequence()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restRegistryMockMvc.perform(asyncDispatch(update))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Export-Watermark", first.getChangeSequence().toString()))
+                .andExpect(content().string("id;name;postal_code;street_address;neighborhood;city;state\n" +
+                    first.getId() + ";EXPORTED_1;;;;São Paulo;SP\n"));
+        } finally {
+            registryRepository.deleteAll(Arrays.asList(before, first, second));
+        }
+    }
+
+    @Test
+    public void exportRegistriesWithUnknownFormat() throws Exception {
+        restRegistryMockMvc.perform(get("/api/registries/export?format=xml"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.formatinvalid"));
+    }
+
+    private List<Registry> findImported(String prefix) {
+        return registryRepository.findAll().stream()
+            .filter(registry -> registry.getName() != null && registry.getName().startsWith(prefix))
+            .collect(Collectors.toList());
+    }
 }
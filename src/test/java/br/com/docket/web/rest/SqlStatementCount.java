@@ -0,0 +1,44 @@
+package br.com.docket.web.rest;
+
+import br.com.docket.config.sql.SqlStatementCounter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Utility class to assert the number of SQL statements run by MockMvc requests, which are handled on the thread of the
+ * test.
+ * <p>
+ * Entities saved by the test itself are flushed before {@link #start()}, so that their inserts are not counted.
+ */
+public final class SqlStatementCount {
+
+    private final SqlStatementCounter.Snapshot start;
+
+    private SqlStatementCount(SqlStatementCounter.Snapshot start) {
+        this.start = start;
+    }
+
+    /**
+     * Start counting the SQL statements run by the current thread.
+     *
+     * @return the count.
+     */
+    public static SqlStatementCount start() {
+        return new SqlStatementCount(SqlStatementCounter.snapshot());
+    }
+
+    /**
+     * @return the statements, JDBC time and loaded entities since {@link #start()}.
+     */
+    public SqlStatementCounter.Snapshot counts() {
+        return SqlStatementCounter.snapshot().since(start);
+    }
+
+    public void assertStatements(long expected) {
+        assertThat(counts().getStatements()).as("SQL statements").isEqualTo(expected);
+    }
+
+    public void assertAtMostStatements(long max) {
+        assertThat(counts().getStatements()).as("SQL statements").isLessThanOrEqualTo(max);
+    }
+}
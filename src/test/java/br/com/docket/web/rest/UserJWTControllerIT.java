@@ -100,4 +100,33 @@ public class UserJWTControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    public void testAuthorizeIsRateLimitedPerLogin() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-rate-limited");
+        login.setPassword("wrong password");
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/authenticate")
+                .with(request -> {
+                    request.setRemoteAddr("192.0.2.1");
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(login)))
+                .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/api/authenticate")
+            .with(request -> {
+                request.setRemoteAddr("192.0.2.2");
+                return request;
+            })
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", not(is(emptyString()))))
+            .andExpect(jsonPath("$.title").value("Too many login attempts"))
+            .andExpect(header().doesNotExist("Authorization"));
+    }
 }